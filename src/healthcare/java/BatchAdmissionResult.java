@@ -0,0 +1,27 @@
+package healthcare;
+
+import healthcare.model.*;
+import java.util.*;
+
+//What came out of a batch admission: who got a bed and who didn't
+public class BatchAdmissionResult {
+    private final List<Patient> admittedPatients;
+    private final List<PatientDetails> notPlaced;
+
+    BatchAdmissionResult(List<Patient> admittedPatients, List<PatientDetails> notPlaced) {
+        this.admittedPatients = Collections.unmodifiableList(admittedPatients);
+        this.notPlaced = Collections.unmodifiableList(notPlaced);
+    }
+
+    public List<Patient> getAdmittedPatients() {
+        return admittedPatients;
+    }
+
+    public List<PatientDetails> getNotPlaced() {
+        return notPlaced;
+    }
+
+    public boolean everyonePlaced() {
+        return notPlaced.isEmpty();
+    }
+}
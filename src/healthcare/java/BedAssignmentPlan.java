@@ -0,0 +1,73 @@
+package healthcare;
+
+import java.util.*;
+
+//Result of the bed assignment solver: where each patient should go
+//It's only a plan - nothing is admitted or moved until someone acts on it
+public class BedAssignmentPlan {
+
+    public static final class Placement {
+        private final String patientID;
+        private final String bedID;
+        private final String currentBedID;
+
+        Placement(String patientID, String bedID, String currentBedID) {
+            this.patientID = patientID;
+            this.bedID = bedID;
+            this.currentBedID = currentBedID;
+        }
+
+        public String getPatientID() {
+            return patientID;
+        }
+
+        public String getBedID() {
+            return bedID;
+        }
+
+        // Null for a new admission, otherwise the bed the patient is in now
+        public String getCurrentBedID() {
+            return currentBedID;
+        }
+
+        public boolean isMove() {
+            return currentBedID != null && !currentBedID.equals(bedID);
+        }
+    }
+
+    private final List<Placement> placements;
+    private final List<String> unplacedPatientIDs;
+    private final long totalFit;
+    private final long solveMillis;
+    private final long improvementRounds;
+
+    BedAssignmentPlan(List<Placement> placements, List<String> unplacedPatientIDs,
+                      long totalFit, long solveMillis, long improvementRounds) {
+        this.placements = Collections.unmodifiableList(placements);
+        this.unplacedPatientIDs = Collections.unmodifiableList(unplacedPatientIDs);
+        this.totalFit = totalFit;
+        this.solveMillis = solveMillis;
+        this.improvementRounds = improvementRounds;
+    }
+
+    public List<Placement> getPlacements() {
+        return placements;
+    }
+
+    public List<String> getUnplacedPatientIDs() {
+        return unplacedPatientIDs;
+    }
+
+    // Sum of the fit scores - higher is better, lets you compare plans made with different time budgets
+    public long getTotalFit() {
+        return totalFit;
+    }
+
+    public long getSolveMillis() {
+        return solveMillis;
+    }
+
+    public long getImprovementRounds() {
+        return improvementRounds;
+    }
+}
@@ -0,0 +1,204 @@
+package healthcare;
+
+import java.util.*;
+
+//Anytime solver for "which patient goes in which bed" treated as one assignment problem
+//Step 1: greedy - most constrained patient first, each takes its best-fitting free bed
+//Step 2: local search - keep trying moves and swaps that raise the total fit until the deadline
+//There's a valid answer as soon as the greedy step is done, and the search only makes it
+//better, so the deadline just decides how good it gets (Hungarian would be O(n^3), which is
+//too slow at a few thousand beds)
+class BedAssignmentSolver {
+    static final int NOT_SUITABLE = -1;
+
+    // Fit of patient p in bed b, or NOT_SUITABLE. A patient can start in a bed that's
+    // NOT_SUITABLE for them (they were put there by hand); that placement counts as 0 everywhere
+    interface FitScore {
+        int score(int patient, int bed);
+    }
+
+    static final class Solution {
+        private final int[] bedForPatient;
+        private final long totalFit;
+        private final long improvementRounds;
+
+        Solution(int[] bedForPatient, long totalFit, long improvementRounds) {
+            this.bedForPatient = bedForPatient;
+            this.totalFit = totalFit;
+            this.improvementRounds = improvementRounds;
+        }
+
+        // Bed index for each patient, -1 if the patient got no bed
+        int[] getBedForPatient() {
+            return bedForPatient;
+        }
+
+        long getTotalFit() {
+            return totalFit;
+        }
+
+        long getImprovementRounds() {
+            return improvementRounds;
+        }
+    }
+
+    private final int patientCount;
+    private final int bedCount;
+    private final FitScore fit;
+    private final Random random;
+
+    BedAssignmentSolver(int patientCount, int bedCount, FitScore fit, long seed) {
+        this.patientCount = patientCount;
+        this.bedCount = bedCount;
+        this.fit = fit;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Solve until the deadline. startingBeds[p] >= 0 puts patient p in that bed before the
+     * greedy step (patients already in a bed) - those patients are never left without a bed
+     */
+    Solution solve(long deadlineNanos, int[] startingBeds) {
+        int[] bedForPatient = new int[patientCount];
+        int[] patientInBed = new int[bedCount];
+        Arrays.fill(bedForPatient, -1);
+        Arrays.fill(patientInBed, -1);
+
+        long totalFit = 0;
+        for (int p = 0; p < patientCount; p++) {
+            int b = startingBeds[p];
+            if (b >= 0 && patientInBed[b] == -1) {
+                bedForPatient[p] = b;
+                patientInBed[b] = p;
+                totalFit += placedScore(p, b);
+            }
+        }
+        totalFit += greedyStart(bedForPatient, patientInBed, deadlineNanos);
+        long rounds = 0;
+
+        // Local search: pick a patient and a bed at random and keep the change if the total goes up
+        while (System.nanoTime() < deadlineNanos && patientCount > 0 && bedCount > 0) {
+            for (int i = 0; i < 1024; i++) {
+                totalFit += tryImprove(random.nextInt(patientCount), random.nextInt(bedCount),
+                        bedForPatient, patientInBed);
+            }
+            rounds++;
+        }
+        return new Solution(bedForPatient, totalFit, rounds);
+    }
+
+    // What a placement the plan already has is worth (see FitScore)
+    private int placedScore(int p, int b) {
+        return Math.max(fit.score(p, b), 0);
+    }
+
+    private long greedyStart(int[] bedForPatient, int[] patientInBed, long deadlineNanos) {
+        // Patients with the fewest suitable beds go first (skipped if we're already out of time)
+        int[] options = new int[patientCount];
+        Integer[] order = new Integer[patientCount];
+        for (int p = 0; p < patientCount; p++) {
+            order[p] = p;
+            if (bedForPatient[p] != -1 || System.nanoTime() >= deadlineNanos) {
+                continue;
+            }
+            for (int b = 0; b < bedCount; b++) {
+                if (fit.score(p, b) != NOT_SUITABLE) {
+                    options[p]++;
+                }
+            }
+        }
+        Arrays.sort(order, Comparator.comparingInt(p -> options[p]));
+
+        long totalFit = 0;
+        for (int p : order) {
+            if (bedForPatient[p] != -1) {
+                continue;
+            }
+            // Everyone still gets a first answer - after the deadline it's first fit instead of best fit
+            boolean outOfTime = System.nanoTime() >= deadlineNanos;
+            int bestBed = -1;
+            int bestScore = NOT_SUITABLE;
+            for (int b = 0; b < bedCount; b++) {
+                if (patientInBed[b] == -1) {
+                    int score = fit.score(p, b);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestBed = b;
+                        if (outOfTime) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (bestBed != -1) {
+                bedForPatient[p] = bestBed;
+                patientInBed[bestBed] = p;
+                totalFit += bestScore;
+            }
+        }
+        return totalFit;
+    }
+
+    // Move patient p into bed b (swapping with whoever is there) if that raises the total fit
+    // Returns how much the total went up (0 if nothing changed)
+    private long tryImprove(int p, int b, int[] bedForPatient, int[] patientInBed) {
+        int currentBed = bedForPatient[p];
+        int other = patientInBed[b];
+        if (currentBed == b) {
+            return 0;
+        }
+        int newScore = fit.score(p, b);
+        if (newScore == NOT_SUITABLE) {
+            return 0;
+        }
+
+        if (other == -1) {
+            // Free bed: a patient without a bed always takes it, otherwise only if it fits better
+            long gain = currentBed == -1 ? newScore : (long) newScore - placedScore(p, currentBed);
+            if (currentBed != -1 && gain <= 0) {
+                return 0;
+            }
+            if (currentBed != -1) {
+                patientInBed[currentBed] = -1;
+            }
+            bedForPatient[p] = b;
+            patientInBed[b] = p;
+            return gain;
+        }
+
+        // Occupied bed and p has no bed yet: only if the patient in it can go to another free bed
+        // (never push someone out of the plan)
+        if (currentBed == -1) {
+            int freeBed = random.nextInt(bedCount);
+            if (patientInBed[freeBed] != -1) {
+                return 0;
+            }
+            int otherMoved = fit.score(other, freeBed);
+            if (otherMoved == NOT_SUITABLE) {
+                return 0;
+            }
+            long gain = (long) newScore + otherMoved - placedScore(other, b);
+            if (gain <= 0) {
+                return 0;
+            }
+            bedForPatient[other] = freeBed;
+            patientInBed[freeBed] = other;
+            bedForPatient[p] = b;
+            patientInBed[b] = p;
+            return gain;
+        }
+        int otherNew = fit.score(other, currentBed);
+        if (otherNew == NOT_SUITABLE) {
+            return 0;
+        }
+        long gain = (long) newScore + otherNew - placedScore(p, currentBed) - placedScore(other, b);
+        if (gain <= 0) {
+            return 0;
+        }
+        bedForPatient[other] = currentBed;
+        patientInBed[currentBed] = other;
+        bedForPatient[p] = b;
+        patientInBed[b] = p;
+        return gain;
+    }
+}
@@ -0,0 +1,217 @@
+package healthcare;
+
+import healthcare.model.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Index of every bed in the hospital so we don't have to walk
+//ward -> room -> bed every time someone asks for a bed by its ID
+//Built once when the hospital structure is built and rebuilt after a snapshot restore
+class BedRegistry {
+    // Where a bed lives, so lookups can answer "which ward/room" without scanning
+    // Also holds who has claimed the bed - the claim is a compare-and-set, so when two
+    // admissions go for the same bed exactly one of them wins without any global lock
+    static final class BedLocation {
+        private final PatientBed bed;
+        private final String wardID;
+        private final String roomID;
+        private final int careLevel;
+        private final int roomSize;
+        private final long capabilities;
+        private final AtomicReference<String> claimedBy;
+        // Needs mask of whoever holds the claim (0 when nobody does)
+        private volatile long occupantNeeds;
+        // Only taken by bed-to-bed transfers, see lockBoth
+        private final ReentrantLock transferLock = new ReentrantLock();
+
+        BedLocation(PatientBed bed, String wardID, String roomID, int careLevel, int roomSize, long facilities,
+                    Long savedOccupantNeeds) {
+            this.bed = bed;
+            this.wardID = wardID;
+            this.roomID = roomID;
+            this.careLevel = careLevel;
+            this.roomSize = roomSize;
+            this.capabilities = BedSuitability.capabilitiesOf(roomSize == 1, careLevel, facilities);
+            this.claimedBy = new AtomicReference<>(
+                    bed.isOccupied() ? bed.getCurrentPatient().getPatientID() : null);
+            // Someone already in the bed whose needs weren't saved: all we know is that this bed suits
+            // them, so assume they need everything it offers (they can only move to a bed as good)
+            if (bed.isOccupied()) {
+                this.occupantNeeds = savedOccupantNeeds != null ? savedOccupantNeeds : capabilities;
+            }
+        }
+
+        /**
+         * Claim this bed for a patient - false if somebody else already has it
+         */
+        boolean tryClaim(String patientID, long patientNeeds) {
+            if (!claimedBy.compareAndSet(null, patientID)) {
+                return false;
+            }
+            occupantNeeds = patientNeeds;
+            return true;
+        }
+
+        /**
+         * Give the bed back - only works for the patient that holds the claim
+         */
+        boolean release(String patientID) {
+            // compareAndSet compares references, so CAS against the exact String we hold
+            String holder = claimedBy.get();
+            if (holder == null || !holder.equals(patientID)) {
+                return false;
+            }
+            occupantNeeds = 0;
+            return claimedBy.compareAndSet(holder, null);
+        }
+
+        boolean isClaimed() {
+            return claimedBy.get() != null;
+        }
+
+        PatientBed getBed() {
+            return bed;
+        }
+
+        String getWardID() {
+            return wardID;
+        }
+
+        String getRoomID() {
+            return roomID;
+        }
+
+        int getCareLevel() {
+            return careLevel;
+        }
+
+        int getRoomSize() {
+            return roomSize;
+        }
+
+        // A bed in a single room is the only place we can isolate a patient
+        boolean canIsolate() {
+            return roomSize == 1;
+        }
+
+        long getCapabilities() {
+            return capabilities;
+        }
+
+        long getOccupantNeeds() {
+            return occupantNeeds;
+        }
+    }
+
+    // Ward IDs/care levels in the same order as the ward list, so a restore can re-register by position
+    private final List<String> wardIDsInOrder = new ArrayList<>();
+    private final List<Integer> careLevelsInOrder = new ArrayList<>();
+    private final List<Long> facilitiesInOrder = new ArrayList<>();
+    private volatile ConcurrentHashMap<String, BedLocation> bedsByID = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<String, List<PatientBed>> bedsByRoom = new ConcurrentHashMap<>();
+
+    /**
+     * Add all the beds of a newly built ward to the index
+     */
+    void registerWard(String wardID, int careLevel, long facilities, HospitalWard ward) {
+        wardIDsInOrder.add(wardID);
+        careLevelsInOrder.add(careLevel);
+        facilitiesInOrder.add(facilities);
+        indexWard(wardID, careLevel, facilities, ward, Collections.emptyMap(), bedsByID, bedsByRoom);
+    }
+
+    /**
+     * Rebuild the index after the wards restored their state from a snapshot
+     * The new maps are filled first and then swapped in, so readers never see a half-built index
+     * savedOccupantNeeds (bed ID -> needs mask, from occupantNeedsByBed) puts the needs of the
+     * patients in the restored beds back; null for snapshots that don't have them
+     */
+    void reindex(List<HospitalWard> wards, Map<String, Long> savedOccupantNeeds) {
+        Map<String, Long> occupantNeeds = savedOccupantNeeds != null ? savedOccupantNeeds : Collections.emptyMap();
+        ConcurrentHashMap<String, BedLocation> freshBeds = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, List<PatientBed>> freshRooms = new ConcurrentHashMap<>();
+        for (int i = 0; i < wards.size() && i < wardIDsInOrder.size(); i++) {
+            indexWard(wardIDsInOrder.get(i), careLevelsInOrder.get(i), facilitiesInOrder.get(i), wards.get(i),
+                    occupantNeeds, freshBeds, freshRooms);
+        }
+        this.bedsByID = freshBeds;
+        this.bedsByRoom = freshRooms;
+    }
+
+    /**
+     * Find a bed by its ID in O(1), or null if there is no such bed
+     */
+    PatientBed findBed(String bedID) {
+        BedLocation location = bedsByID.get(bedID);
+        return location != null ? location.getBed() : null;
+    }
+
+    BedLocation locateBed(String bedID) {
+        return bedsByID.get(bedID);
+    }
+
+    /**
+     * All beds in one room of one ward (empty list if the room doesn't exist)
+     */
+    List<PatientBed> getBedsInRoom(String wardID, String roomID) {
+        return bedsByRoom.getOrDefault(roomKey(wardID, roomID), Collections.emptyList());
+    }
+
+    Collection<BedLocation> allBeds() {
+        return Collections.unmodifiableCollection(bedsByID.values());
+    }
+
+    int getBedCount() {
+        return bedsByID.size();
+    }
+
+    /**
+     * The needs mask of every claimed bed's occupant, for saving
+     */
+    Map<String, Long> occupantNeedsByBed() {
+        Map<String, Long> needsByBed = new HashMap<>();
+        for (BedLocation location : bedsByID.values()) {
+            long needs = location.getOccupantNeeds();
+            if (location.isClaimed() && needs != 0) {
+                needsByBed.put(location.getBed().getBedID(), needs);
+            }
+        }
+        return needsByBed;
+    }
+
+    private static void indexWard(String wardID, int careLevel, long facilities, HospitalWard ward,
+                                  Map<String, Long> occupantNeeds, Map<String, BedLocation> beds,
+                                  Map<String, List<PatientBed>> rooms) {
+        for (PatientRoom room : ward.getAllRooms()) {
+            List<PatientBed> roomBeds = new ArrayList<>(room.getAllBeds());
+            for (PatientBed bed : roomBeds) {
+                beds.put(bed.getBedID(), new BedLocation(bed, wardID, room.getRoomID(), careLevel, roomBeds.size(),
+                        facilities, occupantNeeds.get(bed.getBedID())));
+            }
+            rooms.put(roomKey(wardID, room.getRoomID()), Collections.unmodifiableList(roomBeds));
+        }
+    }
+
+    /**
+     * Lock two beds for a transfer, always in bed ID order so two moves in opposite
+     * directions can't deadlock each other
+     */
+    static void lockBoth(BedLocation first, BedLocation second) {
+        int order = first.getBed().getBedID().compareTo(second.getBed().getBedID());
+        BedLocation lockFirst = order <= 0 ? first : second;
+        BedLocation lockSecond = order <= 0 ? second : first;
+        lockFirst.transferLock.lock();
+        lockSecond.transferLock.lock();
+    }
+
+    static void unlockBoth(BedLocation first, BedLocation second) {
+        second.transferLock.unlock();
+        first.transferLock.unlock();
+    }
+
+    private static String roomKey(String wardID, String roomID) {
+        return wardID + "/" + roomID;
+    }
+}
@@ -0,0 +1,108 @@
+package healthcare;
+
+import java.util.Set;
+
+//Patient needs and bed capabilities packed into a long, worked out once
+//(needs at admission, capabilities when the bed is indexed), so checking if a bed
+//suits a patient is one AND/NOT with no objects created. The masks are the whole check:
+//nothing else is asked once they say a bed suits a patient.
+//From the top bit down:
+//  care level  bit 48+N = level N; a bed of level L has 1..L set (it can take patients who need less)
+//  isolation   bit 48; only single rooms have it
+//  gender      bits 40-47, one per gender; a bed has the genders its ward takes
+//  mobility    bits 32-39, one per level; a bed has every level up to what its ward supports
+//  diet        bits 0-31, one per diet; a bed has the diets its ward's kitchen serves
+//Care level on top means descending order is "highest care first, isolation first" (the
+//waiting list relies on that), and needs that suit a bed are never numerically above it.
+final class BedSuitability {
+    private static final int DIET_SHIFT = 0;
+    private static final int DIET_BITS = 32;
+    private static final int MOBILITY_SHIFT = 32;
+    private static final int MOBILITY_BITS = 8;
+    private static final int GENDER_SHIFT = 40;
+    private static final int GENDER_BITS = 8;
+    private static final int CARE_SHIFT = 48;
+    private static final long ISOLATION = 1L << CARE_SHIFT;
+    private static final int HIGHEST_LEVEL = 14;
+    // A ward with no restrictions: every gender, mobility level and diet
+    static final long ALL_FACILITIES = (1L << CARE_SHIFT) - 1;
+
+    private BedSuitability() {
+    }
+
+    /**
+     * A patient's needs; a null gender, mobility or diet just means no requirement
+     */
+    static long needsOf(boolean needsIsolation, int careLevel, Enum<?> gender, Enum<?> mobility, Enum<?> diet) {
+        long needs = (needsIsolation ? ISOLATION : 0) | (1L << (CARE_SHIFT + clampLevel(careLevel)));
+        if (gender != null) {
+            needs |= 1L << (GENDER_SHIFT + checkedOrdinal(gender, GENDER_BITS));
+        }
+        if (mobility != null) {
+            needs |= 1L << (MOBILITY_SHIFT + checkedOrdinal(mobility, MOBILITY_BITS));
+        }
+        if (diet != null) {
+            needs |= 1L << (DIET_SHIFT + checkedOrdinal(diet, DIET_BITS));
+        }
+        return needs;
+    }
+
+    /**
+     * What a ward can offer on top of care level and room type; null = no restriction
+     * (mobility is the highest mobility need the ward can look after)
+     */
+    static long facilitiesOf(Set<? extends Enum<?>> genders, Enum<?> highestMobility, Set<? extends Enum<?>> diets) {
+        long facilities = 0;
+        if (genders == null) {
+            facilities |= ((1L << GENDER_BITS) - 1) << GENDER_SHIFT;
+        } else {
+            for (Enum<?> gender : genders) {
+                facilities |= 1L << (GENDER_SHIFT + checkedOrdinal(gender, GENDER_BITS));
+            }
+        }
+        int mobilityLevels = highestMobility == null ? MOBILITY_BITS : checkedOrdinal(highestMobility, MOBILITY_BITS) + 1;
+        facilities |= ((1L << mobilityLevels) - 1) << MOBILITY_SHIFT;
+        if (diets == null) {
+            facilities |= ((1L << DIET_BITS) - 1) << DIET_SHIFT;
+        } else {
+            for (Enum<?> diet : diets) {
+                facilities |= 1L << (DIET_SHIFT + checkedOrdinal(diet, DIET_BITS));
+            }
+        }
+        return facilities;
+    }
+
+    static long capabilitiesOf(boolean canIsolate, int careLevel, long facilities) {
+        // Care bits 1..careLevel all set
+        long levels = ((1L << (clampLevel(careLevel) + 1)) - 2) << CARE_SHIFT;
+        return (canIsolate ? ISOLATION : 0) | levels | (facilities & ALL_FACILITIES);
+    }
+
+    /**
+     * True if a bed with these capabilities covers every need in the mask
+     */
+    static boolean suits(long needs, long capabilities) {
+        return (needs & ~capabilities) == 0;
+    }
+
+    static boolean needsIsolation(long needs) {
+        return (needs & ISOLATION) != 0;
+    }
+
+    // The care level a needs mask asks for
+    static int careLevelOf(long needs) {
+        return Long.numberOfTrailingZeros((needs >>> CARE_SHIFT) & ~1L);
+    }
+
+    private static int clampLevel(int careLevel) {
+        return Math.max(1, Math.min(careLevel, HIGHEST_LEVEL));
+    }
+
+    private static int checkedOrdinal(Enum<?> value, int bits) {
+        if (value.ordinal() >= bits) {
+            throw new IllegalArgumentException("Too many " + value.getDeclaringClass().getSimpleName()
+                    + " values for the suitability mask (max " + bits + ")");
+        }
+        return value.ordinal();
+    }
+}
@@ -0,0 +1,85 @@
+package healthcare;
+
+import java.time.LocalDateTime;
+
+//The numbers on the compliance dashboard, as one immutable snapshot
+//HospitalSystem keeps the latest one in an AtomicReference and swaps in a new copy (changing
+//just the number that moved) whenever beds, shifts, ratios or violations change.
+//Opening the dashboard is a single read of that reference - nothing gets recalculated.
+public final class ComplianceDashboard {
+    private final double staffingLevel;
+    private final double shiftCoverage;
+    private final double bedUsage;
+    private final double safetyCompliance;
+    private final int openViolations;
+    private final long complianceVersion;
+    private final LocalDateTime updatedAt;
+
+    private ComplianceDashboard(double staffingLevel, double shiftCoverage, double bedUsage,
+                                double safetyCompliance, int openViolations, long complianceVersion,
+                                LocalDateTime updatedAt) {
+        this.staffingLevel = staffingLevel;
+        this.shiftCoverage = shiftCoverage;
+        this.bedUsage = bedUsage;
+        this.safetyCompliance = safetyCompliance;
+        this.openViolations = openViolations;
+        this.complianceVersion = complianceVersion;
+        this.updatedAt = updatedAt;
+    }
+
+    // Before anything has been measured; complianceVersion -1 so the first real report always lands
+    static ComplianceDashboard empty() {
+        return new ComplianceDashboard(100.0, 100.0, 0.0, 100.0, 0, -1, LocalDateTime.now());
+    }
+
+    ComplianceDashboard withStaffingLevel(double percent) {
+        return new ComplianceDashboard(percent, shiftCoverage, bedUsage, safetyCompliance,
+                openViolations, complianceVersion, LocalDateTime.now());
+    }
+
+    ComplianceDashboard withShiftCoverage(double percent) {
+        return new ComplianceDashboard(staffingLevel, percent, bedUsage, safetyCompliance,
+                openViolations, complianceVersion, LocalDateTime.now());
+    }
+
+    ComplianceDashboard withBedUsage(double percent) {
+        return new ComplianceDashboard(staffingLevel, shiftCoverage, percent, safetyCompliance,
+                openViolations, complianceVersion, LocalDateTime.now());
+    }
+
+    ComplianceDashboard withSafety(double percent, int violations, long version) {
+        return new ComplianceDashboard(staffingLevel, shiftCoverage, bedUsage, percent,
+                violations, version, LocalDateTime.now());
+    }
+
+    // Percentage of wards within the nurse-to-patient ratio right now
+    public double getStaffingLevel() {
+        return staffingLevel;
+    }
+
+    // Percentage of next week's shifts with at least one nurse on them
+    public double getShiftCoverage() {
+        return shiftCoverage;
+    }
+
+    public double getBedUsage() {
+        return bedUsage;
+    }
+
+    // Percentage of compliance rules with no open violation
+    public double getSafetyCompliance() {
+        return safetyCompliance;
+    }
+
+    public int getOpenViolations() {
+        return openViolations;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    long getComplianceVersion() {
+        return complianceVersion;
+    }
+}
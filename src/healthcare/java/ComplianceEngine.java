@@ -0,0 +1,182 @@
+package healthcare;
+
+import healthcare.model.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+//Compliance rules that re-check themselves when something they care about changes,
+//instead of every rule being re-run from scratch once an hour.
+//Each rule says which kinds of state it reads (Topic). A change fires an event for its topic,
+//with the ID of what changed (nurse, ward, ...) so a rule can look at just that one thing.
+//Open violations are kept in a map, so asking "what's wrong right now?" is just reading it;
+//the ComplianceReport made from it is reused until the next violation opens, changes or closes.
+class ComplianceEngine {
+
+    // STAFFING = a ward's patients-per-nurse was re-checked (the changed ID is the ward)
+    enum Topic { NURSES, DOCTORS, SHIFTS, BEDS, STAFFING }
+
+    static final class Rule {
+        private final String name;
+        private final ComplianceReport.Severity severity;
+        private final Set<Topic> dependsOn;
+        // (ID of what changed or null for everything, engine to raise/clear violations on)
+        private final BiConsumer<String, ComplianceEngine> check;
+
+        Rule(String name, ComplianceReport.Severity severity, Set<Topic> dependsOn,
+             BiConsumer<String, ComplianceEngine> check) {
+            this.name = name;
+            this.severity = severity;
+            this.dependsOn = dependsOn;
+            this.check = check;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Set<Topic> getDependsOn() {
+            return dependsOn;
+        }
+    }
+
+    private final EnumMap<Topic, List<Rule>> rulesByTopic = new EnumMap<>(Topic.class);
+    private final List<Rule> allRules = new CopyOnWriteArrayList<>();
+    private final Map<String, ComplianceReport.Severity> severityByRule = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ComplianceReport.Violation> openViolations = new ConcurrentHashMap<>();
+    // Bumped on every change to openViolations; a report is only remade when it's out of date
+    private final AtomicLong version = new AtomicLong();
+    private volatile ComplianceReport latestReport;
+    private final List<BiConsumer<String, ComplianceIssue>> violationListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Topic>> changeListeners = new CopyOnWriteArrayList<>();
+
+    ComplianceEngine() {
+        for (Topic topic : Topic.values()) {
+            rulesByTopic.put(topic, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    void register(Rule rule) {
+        allRules.add(rule);
+        severityByRule.put(rule.getName(), rule.severity);
+        for (Topic topic : rule.getDependsOn()) {
+            rulesByTopic.get(topic).add(rule);
+        }
+    }
+
+    /**
+     * Called with (violation key, issue) the moment a new violation opens
+     */
+    void onNewViolation(BiConsumer<String, ComplianceIssue> listener) {
+        violationListeners.add(listener);
+    }
+
+    /**
+     * Called with the topic after its rules have re-run (null after evaluateAll)
+     */
+    void afterChange(Consumer<Topic> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Something changed: re-run only the rules that depend on it
+     */
+    void changed(Topic topic, String subjectID) {
+        for (Rule rule : rulesByTopic.get(topic)) {
+            evaluate(rule, subjectID);
+        }
+        for (Consumer<Topic> listener : changeListeners) {
+            listener.accept(topic);
+        }
+    }
+
+    /**
+     * Re-run every rule against everything (start-up, restore, daily reconcile)
+     */
+    void evaluateAll() {
+        for (Rule rule : allRules) {
+            evaluate(rule, null);
+        }
+        for (Consumer<Topic> listener : changeListeners) {
+            listener.accept(null);
+        }
+    }
+
+    /**
+     * Rules call this when they find a problem; the key says what it's about, e.g. "NURSE_HOUR_VIOLATION:N12"
+     */
+    void raise(String key, ComplianceIssue issue) {
+        boolean[] opened = new boolean[1];
+        boolean[] changed = new boolean[1];
+        openViolations.compute(key, (k, open) -> {
+            if (open != null && open.getDescription().equals(issue.getDescription())) {
+                return open;
+            }
+            opened[0] = open == null;
+            changed[0] = true;
+            return new ComplianceReport.Violation(issue.getRuleName(), issue.getDescription(),
+                    severityByRule.getOrDefault(issue.getRuleName(), ComplianceReport.Severity.WARNING),
+                    open == null ? LocalDateTime.now() : open.getDetectedAt());
+        });
+        if (changed[0]) {
+            version.incrementAndGet();
+        }
+        if (opened[0]) {
+            for (BiConsumer<String, ComplianceIssue> listener : violationListeners) {
+                listener.accept(key, issue);
+            }
+        }
+    }
+
+    void clear(String key) {
+        if (openViolations.remove(key) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Replace every open violation whose key starts with keyPrefix with the ones just found
+     * (for a rule that has re-checked everything it covers)
+     * Not atomic on its own: between the removeIf and the raises another thread could raise or
+     * clear one of these keys. It's only called from a rule's check, and a rule's checks run one
+     * at a time (see evaluate), so as long as each rule only touches keys under its own prefix
+     * a single-subject raise/clear for the same rule waits until the reconcile is done.
+     */
+    void reconcile(String keyPrefix, Map<String, ComplianceIssue> found) {
+        if (openViolations.keySet().removeIf(key -> key.startsWith(keyPrefix) && !found.containsKey(key))) {
+            version.incrementAndGet();
+        }
+        found.forEach(this::raise);
+    }
+
+    /**
+     * Everything open right now; the same report object comes back until something changes
+     */
+    ComplianceReport report() {
+        ComplianceReport report = latestReport;
+        long current = version.get();
+        if (report == null || report.getVersion() != current) {
+            report = new ComplianceReport(new ArrayList<>(openViolations.values()), LocalDateTime.now(), current);
+            latestReport = report;
+        }
+        return report;
+    }
+
+    int getRuleCount() {
+        return allRules.size();
+    }
+
+    boolean hasViolations() {
+        return !openViolations.isEmpty();
+    }
+
+    // One evaluation per rule at a time, so a slow "still broken" can't overwrite a newer "fixed"
+    private void evaluate(Rule rule, String subjectID) {
+        synchronized (rule) {
+            rule.check.accept(subjectID, this);
+        }
+    }
+}
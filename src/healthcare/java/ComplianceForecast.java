@@ -0,0 +1,80 @@
+package healthcare;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+//Compliance problems expected in the next few hours, worked out from occupancy history and the roster
+public class ComplianceForecast {
+
+    public static final class PredictedViolation {
+        private final String wardID;
+        private final String ruleName;
+        private final LocalDateTime expectedAt;
+        private final double predictedValue;
+        private final double limit;
+
+        PredictedViolation(String wardID, String ruleName, LocalDateTime expectedAt, double predictedValue, double limit) {
+            this.wardID = wardID;
+            this.ruleName = ruleName;
+            this.expectedAt = expectedAt;
+            this.predictedValue = predictedValue;
+            this.limit = limit;
+        }
+
+        public String getWardID() {
+            return wardID;
+        }
+
+        public String getRuleName() {
+            return ruleName;
+        }
+
+        // First hour the rule is expected to be broken
+        public LocalDateTime getExpectedAt() {
+            return expectedAt;
+        }
+
+        public double getPredictedValue() {
+            return predictedValue;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+    }
+
+    private final LocalDateTime generatedAt;
+    private final int hoursAhead;
+    private final int historyHours;
+    private final List<PredictedViolation> predictedViolations;
+
+    ComplianceForecast(LocalDateTime generatedAt, int hoursAhead, int historyHours,
+                       List<PredictedViolation> predictedViolations) {
+        this.generatedAt = generatedAt;
+        this.hoursAhead = hoursAhead;
+        this.historyHours = historyHours;
+        predictedViolations.sort(Comparator.comparing(PredictedViolation::getExpectedAt));
+        this.predictedViolations = Collections.unmodifiableList(predictedViolations);
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public int getHoursAhead() {
+        return hoursAhead;
+    }
+
+    // How many hours of history the forecast was based on (fewer than 48 = no daily pattern yet)
+    public int getHistoryHours() {
+        return historyHours;
+    }
+
+    public List<PredictedViolation> getPredictedViolations() {
+        return predictedViolations;
+    }
+
+    public boolean anyProblemsExpected() {
+        return !predictedViolations.isEmpty();
+    }
+}
@@ -0,0 +1,214 @@
+package healthcare;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+//Projects each ward's occupied beds forward so compliance problems can be seen coming.
+//History is one sample per ward per clock hour in a plain double[] ring (two weeks' worth),
+//no boxed time series. With two full days of history it's Holt-Winters with a daily
+//season (admissions follow the clock), before that just level + trend.
+//Samples are labelled with the clock hour they were taken for; a missed hour repeats the
+//previous sample so the daily pattern stays lined up with the clock.
+//Staffing in the future doesn't need guessing - it's whatever the roster says - so only
+//occupancy is forecast here and HospitalSystem compares it with the rostered nurses.
+class ComplianceForecaster {
+    static final int SEASON_HOURS = 24;
+    private static final int HISTORY_HOURS = 14 * SEASON_HOURS;
+    // Smoothing for level, trend and season
+    private static final double ALPHA = 0.3;
+    private static final double BETA = 0.05;
+    private static final double GAMMA = 0.2;
+
+    // Everything one forecast needs, taken together so the wards can't change half way through
+    static final class Projection {
+        private final String[] wardIDs;
+        private final int[] bedsPerWard;
+        private final double[][] occupied;
+        private final LocalDateTime firstHour;
+        private final int historyHours;
+
+        private Projection(String[] wardIDs, int[] bedsPerWard, double[][] occupied,
+                           LocalDateTime firstHour, int historyHours) {
+            this.wardIDs = wardIDs;
+            this.bedsPerWard = bedsPerWard;
+            this.occupied = occupied;
+            this.firstHour = firstHour;
+            this.historyHours = historyHours;
+        }
+
+        String[] getWardIDs() {
+            return wardIDs;
+        }
+
+        int getBeds(int ward) {
+            return bedsPerWard[ward];
+        }
+
+        // [ward][hour], hour 0 = getFirstHour()
+        double[][] getOccupied() {
+            return occupied;
+        }
+
+        LocalDateTime getFirstHour() {
+            return firstHour;
+        }
+
+        // Most history any ward had (fewer than 48 hours = no daily pattern yet)
+        int getHistoryHours() {
+            return historyHours;
+        }
+    }
+
+    private String[] wardIDs;
+    private int[] bedsPerWard;
+    private double[][] occupiedHistory;
+    // Per ward, as a ward added later has less history than the rest
+    private int[] samplesPerWard;
+    private int nextSlot;
+    private LocalDateTime lastSampleHour;
+
+    ComplianceForecaster(String[] wardIDs, int[] bedsPerWard) {
+        this.wardIDs = wardIDs.clone();
+        this.bedsPerWard = bedsPerWard.clone();
+        this.occupiedHistory = new double[wardIDs.length][HISTORY_HOURS];
+        this.samplesPerWard = new int[wardIDs.length];
+    }
+
+    /**
+     * Change the wards being followed (after a restore); wards that stay keep their history
+     */
+    synchronized void setWards(String[] newWardIDs, int[] newBedsPerWard) {
+        Map<String, Integer> oldIndex = new HashMap<>();
+        for (int ward = 0; ward < wardIDs.length; ward++) {
+            oldIndex.put(wardIDs[ward], ward);
+        }
+        double[][] history = new double[newWardIDs.length][];
+        int[] samples = new int[newWardIDs.length];
+        for (int ward = 0; ward < newWardIDs.length; ward++) {
+            Integer old = oldIndex.get(newWardIDs[ward]);
+            history[ward] = old != null ? occupiedHistory[old] : new double[HISTORY_HOURS];
+            samples[ward] = old != null ? samplesPerWard[old] : 0;
+        }
+        this.wardIDs = newWardIDs.clone();
+        this.bedsPerWard = newBedsPerWard.clone();
+        this.occupiedHistory = history;
+        this.samplesPerWard = samples;
+    }
+
+    /**
+     * Add the occupied-bed counts for a clock hour, in the same ward order as getWardIDs
+     */
+    synchronized void recordHour(LocalDateTime hour, long[] occupiedByWard) {
+        LocalDateTime sampleHour = hour.truncatedTo(ChronoUnit.HOURS);
+        if (lastSampleHour != null) {
+            if (!sampleHour.isAfter(lastSampleHour)) {
+                return;
+            }
+            long missed = Math.min(ChronoUnit.HOURS.between(lastSampleHour, sampleHour) - 1, HISTORY_HOURS);
+            int previousSlot = Math.floorMod(nextSlot - 1, HISTORY_HOURS);
+            for (long gap = 0; gap < missed; gap++) {
+                for (int ward = 0; ward < wardIDs.length; ward++) {
+                    occupiedHistory[ward][nextSlot] = occupiedHistory[ward][previousSlot];
+                }
+                advance();
+            }
+        }
+        for (int ward = 0; ward < wardIDs.length; ward++) {
+            occupiedHistory[ward][nextSlot] = occupiedByWard[ward];
+        }
+        advance();
+        lastSampleHour = sampleHour;
+    }
+
+    /**
+     * Expected occupied beds for each ward, for each of the next hoursAhead clock hours after
+     * fromHour (or after the last sample, if that's later); null if nothing has been recorded yet
+     */
+    synchronized Projection forecast(LocalDateTime fromHour, int hoursAhead) {
+        if (lastSampleHour == null) {
+            return null;
+        }
+        LocalDateTime firstHour = fromHour.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        // Hours between the last sample and the first one asked for still have to be stepped through
+        int skipped = (int) Math.max(0, ChronoUnit.HOURS.between(lastSampleHour.plusHours(1), firstHour));
+        if (skipped == 0) {
+            firstHour = lastSampleHour.plusHours(1);
+        }
+        double[][] occupied = new double[wardIDs.length][hoursAhead];
+        double[] projected = new double[skipped + hoursAhead];
+        double[] series = new double[HISTORY_HOURS];
+        double[] seasonal = new double[SEASON_HOURS];
+        int historyHours = 0;
+        for (int ward = 0; ward < wardIDs.length; ward++) {
+            int samples = samplesPerWard[ward];
+            historyHours = Math.max(historyHours, samples);
+            int oldest = Math.floorMod(nextSlot - samples, HISTORY_HOURS);
+            for (int i = 0; i < samples; i++) {
+                series[i] = occupiedHistory[ward][(oldest + i) % HISTORY_HOURS];
+            }
+            Arrays.fill(projected, 0);
+            project(series, samples, seasonal, projected);
+            for (int hour = 0; hour < hoursAhead; hour++) {
+                occupied[ward][hour] = Math.max(0, Math.min(bedsPerWard[ward], projected[skipped + hour]));
+            }
+        }
+        return new Projection(wardIDs.clone(), bedsPerWard.clone(), occupied, firstHour, historyHours);
+    }
+
+    synchronized String[] getWardIDs() {
+        return wardIDs.clone();
+    }
+
+    private void advance() {
+        nextSlot = (nextSlot + 1) % HISTORY_HOURS;
+        for (int ward = 0; ward < samplesPerWard.length; ward++) {
+            samplesPerWard[ward] = Math.min(samplesPerWard[ward] + 1, HISTORY_HOURS);
+        }
+    }
+
+    // Additive Holt-Winters when there are two full seasons, Holt's linear trend otherwise
+    private static void project(double[] series, int n, double[] seasonal, double[] out) {
+        if (n == 0) {
+            return;
+        }
+        double level;
+        double trend;
+        boolean useSeason = n >= 2 * SEASON_HOURS;
+        if (useSeason) {
+            double firstMean = mean(series, 0, SEASON_HOURS);
+            double secondMean = mean(series, SEASON_HOURS, 2 * SEASON_HOURS);
+            level = firstMean;
+            trend = (secondMean - firstMean) / SEASON_HOURS;
+            for (int i = 0; i < SEASON_HOURS; i++) {
+                seasonal[i] = series[i] - firstMean;
+            }
+            for (int t = SEASON_HOURS; t < n; t++) {
+                int season = t % SEASON_HOURS;
+                double newLevel = ALPHA * (series[t] - seasonal[season]) + (1 - ALPHA) * (level + trend);
+                trend = BETA * (newLevel - level) + (1 - BETA) * trend;
+                seasonal[season] = GAMMA * (series[t] - newLevel) + (1 - GAMMA) * seasonal[season];
+                level = newLevel;
+            }
+        } else {
+            level = series[0];
+            trend = n > 1 ? series[1] - series[0] : 0;
+            for (int t = 1; t < n; t++) {
+                double newLevel = ALPHA * series[t] + (1 - ALPHA) * (level + trend);
+                trend = BETA * (newLevel - level) + (1 - BETA) * trend;
+                level = newLevel;
+            }
+        }
+        for (int h = 0; h < out.length; h++) {
+            out[h] = level + (h + 1) * trend + (useSeason ? seasonal[(n + h) % SEASON_HOURS] : 0);
+        }
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
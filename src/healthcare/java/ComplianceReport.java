@@ -0,0 +1,86 @@
+package healthcare;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+//Everything that's out of compliance right now, returned as a value instead of thrown
+//Made once per change by ComplianceEngine and shared until the next one, so asking often is free
+public class ComplianceReport {
+
+    public enum Severity { WARNING, CRITICAL }
+
+    public static final class Violation {
+        private final String ruleName;
+        private final String description;
+        private final Severity severity;
+        private final LocalDateTime detectedAt;
+
+        Violation(String ruleName, String description, Severity severity, LocalDateTime detectedAt) {
+            this.ruleName = ruleName;
+            this.description = description;
+            this.severity = severity;
+            this.detectedAt = detectedAt;
+        }
+
+        public String getRuleName() {
+            return ruleName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        // When this violation first opened (not when the report was made)
+        public LocalDateTime getDetectedAt() {
+            return detectedAt;
+        }
+    }
+
+    private final List<Violation> violations;
+    private final LocalDateTime generatedAt;
+    private final long version;
+
+    ComplianceReport(List<Violation> violations, LocalDateTime generatedAt, long version) {
+        // Critical first, then oldest first
+        violations.sort(Comparator.comparing(Violation::getSeverity).reversed()
+                .thenComparing(Violation::getDetectedAt));
+        this.violations = Collections.unmodifiableList(violations);
+        this.generatedAt = generatedAt;
+        this.version = version;
+    }
+
+    public boolean isCompliant() {
+        return violations.isEmpty();
+    }
+
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    public int countBySeverity(Severity severity) {
+        int count = 0;
+        for (Violation violation : violations) {
+            if (violation.getSeverity() == severity) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public String getSummary() {
+        return isCompliant() ? "All compliance checks passed"
+                : violations.size() + " violations (" + countBySeverity(Severity.CRITICAL) + " critical)";
+    }
+
+    long getVersion() {
+        return version;
+    }
+}
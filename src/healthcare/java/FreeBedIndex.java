@@ -0,0 +1,117 @@
+package healthcare;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+//Free beds grouped by what kind of bed they are (ward care level + room size)
+//so finding a bed for a patient only looks at the few groups that could suit them
+//instead of checking every bed in the hospital. Beds leave the index the moment they
+//are claimed and come back when they are freed.
+class FreeBedIndex {
+    // Group key: care level in the high bits, room size in the low bits, so the
+    // map iterates by care level first and then by room size
+    private final ConcurrentSkipListMap<Integer, ConcurrentSkipListSet<String>> freeBedsByKind =
+            new ConcurrentSkipListMap<>();
+    private volatile int highestCareLevel;
+
+    /**
+     * Fill the index with every unclaimed bed (after build or snapshot restore)
+     */
+    synchronized void rebuild(BedRegistry registry) {
+        freeBedsByKind.clear();
+        int highest = 0;
+        for (BedRegistry.BedLocation location : registry.allBeds()) {
+            highest = Math.max(highest, location.getCareLevel());
+            // Create the group even when it's empty so it's there when a bed frees up
+            ConcurrentSkipListSet<String> group = groupFor(location);
+            if (!location.isClaimed()) {
+                group.add(location.getBed().getBedID());
+            }
+        }
+        this.highestCareLevel = highest;
+    }
+
+    void bedTaken(BedRegistry.BedLocation location) {
+        groupFor(location).remove(location.getBed().getBedID());
+    }
+
+    void bedFreed(BedRegistry.BedLocation location) {
+        groupFor(location).add(location.getBed().getBedID());
+    }
+
+    /**
+     * Pick a free bed for a patient, or null if nothing suitable is free
+     * Isolation patients only get single rooms. Everyone else fills the biggest shared
+     * rooms first, so single rooms stay free for patients who need isolation.
+     * Care level has to be at least what the patient needs, closest level first.
+     */
+    String findFreeBed(boolean needsIsolation, int neededCareLevel) {
+        return findFreeBed(needsIsolation, neededCareLevel, bedID -> true);
+    }
+
+    /**
+     * The first free bed in findFreeBed's preference order that also passes `accept`
+     * (the caller's check of what the groups don't cover - gender, mobility, diet)
+     * Every group that could suit is looked at, so null really means nothing suitable is free
+     */
+    String findFreeBed(boolean needsIsolation, int neededCareLevel, Predicate<String> accept) {
+        for (int level = Math.max(neededCareLevel, 1); level <= highestCareLevel; level++) {
+            String found = needsIsolation ? null : firstSharedBed(level, accept);
+            if (found == null) {
+                found = firstBed(freeBedsByKind.get(kindKey(level, 1)), accept);
+            }
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    int getHighestCareLevel() {
+        return highestCareLevel;
+    }
+
+    int countFreeBeds() {
+        int free = 0;
+        for (ConcurrentSkipListSet<String> group : freeBedsByKind.values()) {
+            free += group.size();
+        }
+        return free;
+    }
+
+    private String firstSharedBed(int level, Predicate<String> accept) {
+        // Shared groups for one care level, biggest rooms first (single rooms are looked at after)
+        for (ConcurrentSkipListSet<String> group
+                : freeBedsByKind.subMap(kindKey(level, 2), true, kindKey(level, 0xFFFF), true)
+                .descendingMap().values()) {
+            String found = firstBed(group, accept);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static String firstBed(ConcurrentSkipListSet<String> group, Predicate<String> accept) {
+        if (group == null) {
+            return null;
+        }
+        // Iterating a skip-list set never throws if beds are claimed meanwhile, it just skips them
+        for (String bedID : group) {
+            if (accept.test(bedID)) {
+                return bedID;
+            }
+        }
+        return null;
+    }
+
+    private ConcurrentSkipListSet<String> groupFor(BedRegistry.BedLocation location) {
+        return freeBedsByKind.computeIfAbsent(kindKey(location.getCareLevel(), location.getRoomSize()),
+                key -> new ConcurrentSkipListSet<>());
+    }
+
+    private static int kindKey(int careLevel, int roomSize) {
+        return (careLevel << 16) | Math.min(roomSize, 0xFFFF);
+    }
+}
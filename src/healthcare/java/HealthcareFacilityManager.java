@@ -5,7 +5,9 @@ import healthcare.exceptions.*;
 import healthcare.utils.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.io.*;
 import java.util.stream.Collectors;
 
@@ -31,8 +33,21 @@ public class HospitalSystem implements Serializable {
     private ConcurrentHashMap<String, Patient> allPatients;
     // Hospital structure stuff
     private ArrayList<HospitalWard> myWards;
-    private SmartBedFinder bedFindingSystem;
+    private BedRegistry bedRegistry;
+    private OccupancyCounters occupancyCounters;
+    private FreeBedIndex freeBedIndex;
+    private WaitingList waitingList;
+    private IndexedBedFinder bedFindingSystem;
     private WorkScheduleManager scheduleManager;
+    private ShiftTemplates shiftTemplates;
+    private RollingRoster shiftRoster;
+    private RollingRoster onCallRoster;
+    private OnCallIndex onCallIndex;
+    private NurseStaffingRatios staffingRatios;
+    private ComplianceEngine complianceEngine;
+    private ComplianceForecaster complianceForecaster;
+    private AtomicReference<ComplianceDashboard> dashboard;
+    private List<NurseRegistryListener> nurseListeners;
     // Monitoring and compliance stuff
     private LiveComplianceChecker complianceWatcher;
     private PerformanceTracker performanceMonitor;
@@ -40,31 +55,58 @@ public class HospitalSystem implements Serializable {
     // Background processing stuff (advanced!)
     private ThreadPoolExecutor backgroundWorker;
     private ScheduledExecutorService maintenanceTimer;
+    private ScheduledFuture<?> nextShiftBoundaryRefresh;
     private ResourceManager resourceManager;
     // Configuration and rules
     private HospitalSettings mySettings;
     private ComplianceRules businessRules;
-    // Constants from assignment specification
-    private static final int NUMBER_OF_WARDS = 2;
-    private static final int ROOMS_IN_EACH_WARD = 6;
+    // Constants from assignment specification (the default topology)
     private static final int[] WARD_A_BEDS = {2, 4, 1, 3, 2, 4}; // A1 has 2 beds, A2 has 4, etc.
     private static final int[] WARD_B_BEDS = {3, 2, 4, 1, 3, 2}; // B1 has 3 beds, B2 has 2, etc.
     // Shift times from assignment requirements
-    private static final LocalTime MORNING_STARTS_AT = LocalTime.of(8, 0);   // 8 AM
-    private static final LocalTime MORNING_ENDS_AT = LocalTime.of(16, 0);    // 4 PM
-    private static final LocalTime AFTERNOON_STARTS_AT = LocalTime.of(14, 0); // 2 PM
-    private static final LocalTime AFTERNOON_ENDS_AT = LocalTime.of(22, 0);   // 10 PM
+    static final LocalTime MORNING_STARTS_AT = LocalTime.of(8, 0);   // 8 AM
+    static final LocalTime MORNING_ENDS_AT = LocalTime.of(16, 0);    // 4 PM
+    static final LocalTime AFTERNOON_STARTS_AT = LocalTime.of(14, 0); // 2 PM
+    static final LocalTime AFTERNOON_ENDS_AT = LocalTime.of(22, 0);   // 10 PM
+    // How far ahead shifts can be rostered and how many past days stay before being archived
+    private static final int ROSTER_WEEKS_AHEAD = 12;
+    private static final int ROSTER_DAYS_KEPT = 7;
+    // How many times an admission asks for another bed after losing one to a concurrent admission
+    private static final int MAX_BED_CLAIM_ATTEMPTS = 5;
+    // How long a batch admission lets the bed solver look for a better overall plan
+    private static final Duration BATCH_PLAN_TIME_BUDGET = Duration.ofMillis(200);
+    // How many nurses the roster solver tries to put on every shift
+    private static final int NURSES_NEEDED_PER_SHIFT = 1;
+    // Longest a doctor can be on call in one day
+    private static final int MAX_ON_CALL_HOURS_PER_DAY = 12;
+    // Above this many nurses the full hour-limit check is split across cores
+    private static final int NURSE_CHECK_PARALLEL_THRESHOLD = 2_000;
+    private static final String HOUR_VIOLATION_KEY = "NURSE_HOUR_VIOLATION:";
+    private static final String RATIO_BREACH_KEY = "NURSE_RATIO_BREACH:";
+    // Tries at a what-if scenario while the live roster keeps changing under it
+    private static final int MAX_SCENARIO_ATTEMPTS = 3;
+    // Occupancy above this is an overcrowding risk, now or forecast
+    private static final double OVERCROWDING_PERCENT = 95.0;
+    // Furthest ahead the compliance forecast will look
+    private static final int MAX_FORECAST_HOURS = 72;
     //Constructor that sets up my entire hospital system
 
     public HospitalSystem(String hospitalName) throws MajorSystemProblem {
+        this(hospitalName, assignmentTopology());
+    }
+
+    /**
+     * Build the hospital from any ward topology (layout file, builder or synthetic generator)
+     */
+    public HospitalSystem(String hospitalName, WardTopology topology) throws MajorSystemProblem {
         this.hospitalName = hospitalName;
         this.myHospitalID = HospitalID.generateNewID();
         this.whenIBuiltThis = LocalDateTime.now();
 
         setupThreadSafeCollections();
-        buildHospitalStructure();
-        startAdvancedSystems();
+        buildHospitalStructure(topology);
         configureHospitalSettings();
+        startAdvancedSystems();
 
         System.out.println("🏥 " + hospitalName + " system is now running!");
         System.out.println("🆔 Hospital ID: " + myHospitalID.getIDString());
@@ -84,45 +126,100 @@ public class HospitalSystem implements Serializable {
     }
 
     /**
-     * Build the hospital layout according to assignment specs
+     * The 2-ward layout from the assignment specs
      */
-    private void buildHospitalStructure() {
-        this.myWards = new ArrayList<>();
-
-        // Build Ward A with the specified bed layout
-        HospitalWard wardA = new HospitalWard("General Care Ward A", "WARD_A", 1);
-        for (int roomNum = 0; roomNum < ROOMS_IN_EACH_WARD; roomNum++) {
-            String roomID = "A" + (roomNum + 1);
-            int bedsInThisRoom = WARD_A_BEDS[roomNum];
-            PatientRoom newRoom = new PatientRoom(roomID, bedsInThisRoom);
-            wardA.addRoomToWard(newRoom);
-        }
-        myWards.add(wardA);
+    private static WardTopology assignmentTopology() {
+        return new WardTopology.Builder()
+                .addWard("General Care Ward A", "WARD_A", 1, "A", WARD_A_BEDS)
+                .addWard("Intensive Care Ward B", "WARD_B", 2, "B", WARD_B_BEDS)
+                .build();
+    }
 
-        // Build Ward B with different bed layout
-        HospitalWard wardB = new HospitalWard("Intensive Care Ward B", "WARD_B", 2);
-        for (int roomNum = 0; roomNum < ROOMS_IN_EACH_WARD; roomNum++) {
-            String roomID = "B" + (roomNum + 1);
-            int bedsInThisRoom = WARD_B_BEDS[roomNum];
-            PatientRoom newRoom = new PatientRoom(roomID, bedsInThisRoom);
-            wardB.addRoomToWard(newRoom);
+    /**
+     * Build the hospital layout from the given topology
+     */
+    private void buildHospitalStructure(WardTopology topology) {
+        long buildStarted = System.nanoTime();
+        this.myWards = new ArrayList<>(topology.getWardCount());
+        this.bedRegistry = new BedRegistry();
+
+        // One reusable buffer for room IDs like "A1", "A2" instead of concatenating per room
+        StringBuilder roomIDBuffer = new StringBuilder();
+        for (WardTopology.WardLayout layout : topology.getWards()) {
+            HospitalWard ward = new HospitalWard(layout.getWardName(), layout.getWardID(), layout.getCareLevel());
+            for (int roomNum = 0; roomNum < layout.getRoomCount(); roomNum++) {
+                roomIDBuffer.setLength(0);
+                roomIDBuffer.append(layout.getRoomPrefix()).append(roomNum + 1);
+                ward.addRoomToWard(new PatientRoom(roomIDBuffer.toString(), layout.getBedsInRoom(roomNum)));
+            }
+            myWards.add(ward);
+            bedRegistry.registerWard(layout.getWardID(), layout.getCareLevel(), layout.getFacilities(), ward);
         }
-        myWards.add(wardB);
+        this.occupancyCounters = new OccupancyCounters();
+        occupancyCounters.recount(bedRegistry);
+        this.freeBedIndex = new FreeBedIndex();
+        freeBedIndex.rebuild(bedRegistry);
+        this.waitingList = new WaitingList();
 
+        long buildMillis = (System.nanoTime() - buildStarted) / 1_000_000;
         System.out.println("🏗️ Hospital structure built: " + myWards.size() + " wards, " +
-                calculateTotalBeds() + " total beds");
+                calculateTotalBeds() + " total beds in " + buildMillis + " ms");
     }
 
     /**
      * Start up all the advanced subsystems
      */
     private void startAdvancedSystems() {
-        // Smart bed assignment system
-        this.bedFindingSystem = new SmartBedFinder(myWards);
+        // Smart bed assignment system - answers from the free-bed index, full scan as fallback
+        this.bedFindingSystem = new IndexedBedFinder(freeBedIndex, bedRegistry, new SmartBedFinder(myWards));
 
         // Work schedule management
         this.scheduleManager = new WorkScheduleManager();
+        this.shiftTemplates = new ShiftTemplates();
+        this.shiftRoster = new RollingRoster(shiftTemplates, LocalDate.now(), ROSTER_WEEKS_AHEAD, ROSTER_DAYS_KEPT);
         setupWeeklyScheduleSlots();
+        // Doctors' on-call shifts use the same templates and calendar engine as nurses
+        this.onCallRoster = new RollingRoster(shiftTemplates, LocalDate.now(), ROSTER_WEEKS_AHEAD, ROSTER_DAYS_KEPT);
+        this.onCallIndex = new OnCallIndex(onCallRoster, allDoctors);
+        this.staffingRatios = new NurseStaffingRatios(occupancyCounters, mySettings.getMaxPatientsPerNurse());
+        // Compliance rules that re-check themselves when what they depend on changes
+        this.complianceEngine = new ComplianceEngine();
+        registerComplianceRules();
+        // Dashboard numbers follow the same change events as the rules
+        this.dashboard = new AtomicReference<>(ComplianceDashboard.empty());
+        complianceEngine.afterChange(this::refreshDashboard);
+        this.complianceForecaster = new ComplianceForecaster(new String[0], new int[0]);
+        syncForecasterWards();
+
+        this.nurseListeners = new CopyOnWriteArrayList<>();
+        nurseListeners.add(new NurseRegistryListener() {
+            @Override
+            public void nurseAdded(Nurse nurse) {
+                scheduleManager.addAvailableNurse(nurse);
+            }
+
+            @Override
+            public void nurseRemoved(Nurse nurse) {
+                scheduleManager.removeAvailableNurse(nurse.getStaffID());
+                shiftRoster.removeStaff(nurse.getStaffID());
+                String homeWard = staffingRatios.nurseLeft(nurse.getStaffID());
+                if (homeWard != null) {
+                    wardStaffingChanged(homeWard);
+                }
+            }
+        });
+        nurseListeners.add(new NurseRegistryListener() {
+            @Override
+            public void nurseAdded(Nurse nurse) {
+                complianceEngine.changed(ComplianceEngine.Topic.NURSES, nurse.getStaffID());
+            }
+
+            @Override
+            public void nurseRemoved(Nurse nurse) {
+                complianceEngine.changed(ComplianceEngine.Topic.NURSES, nurse.getStaffID());
+                complianceEngine.changed(ComplianceEngine.Topic.SHIFTS, nurse.getStaffID());
+            }
+        });
 
         // Compliance monitoring system
         this.complianceWatcher = new LiveComplianceChecker();
@@ -148,18 +245,43 @@ public class HospitalSystem implements Serializable {
     }
 
     /**
-     * Set up the weekly schedule slots (14 total: 7 days × 2 shifts)
+     * Set up the weekly schedule slots (7 days × each shift template, 14 by default)
+     * These are templates only - dated bookings live in the rolling roster
      */
     private void setupWeeklyScheduleSlots() {
-        String[] daysOfWeek = {"monday", "tuesday", "wednesday", "thursday",
-                "friday", "saturday", "sunday"};
-
-        for (String day : daysOfWeek) {
-            scheduleManager.createShiftSlot(day + "_morning", MORNING_STARTS_AT, MORNING_ENDS_AT);
-            scheduleManager.createShiftSlot(day + "_afternoon", AFTERNOON_STARTS_AT, AFTERNOON_ENDS_AT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (ShiftType shift : shiftTemplates.values()) {
+                scheduleManager.createShiftSlot(shift.keyFor(day), shift.getStartsAt(), shift.getEndsAt());
+            }
         }
 
-        System.out.println("📅 Weekly schedule template created (14 shifts total)");
+        System.out.println("📅 Weekly schedule template created ("
+                + DayOfWeek.values().length * shiftTemplates.values().size() + " shifts total)");
+    }
+
+    /**
+     * Add a shift pattern on top of morning/afternoon, e.g. a night from 22:00 to 07:00
+     * An end time at or before the start time means the shift runs past midnight
+     */
+    public void addShiftTemplate(String name, LocalTime startsAt, LocalTime endsAt) {
+        ShiftType shift;
+        try {
+            shift = shiftTemplates.define(name, startsAt, endsAt);
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage());
+            return;
+        }
+        for (DayOfWeek day : DayOfWeek.values()) {
+            scheduleManager.createShiftSlot(shift.keyFor(day), shift.getStartsAt(), shift.getEndsAt());
+        }
+        shiftRoster.shiftTemplatesChanged();
+        onCallRoster.shiftTemplatesChanged();
+        complianceEngine.changed(ComplianceEngine.Topic.SHIFTS, null);
+        // The new template may start or end before the boundary the timer is waiting for
+        scheduleShiftBoundaryRefresh();
+
+        activityLogger.logSystemEvent("SHIFT_TEMPLATE_ADDED", name + " " + startsAt + "-" + endsAt);
+        System.out.println("📅 Shift " + shift.name() + " (" + startsAt + "-" + endsAt + ") added");
     }
 
     /**
@@ -183,14 +305,8 @@ public class HospitalSystem implements Serializable {
      * Schedule regular maintenance tasks to run in background
      */
     private void scheduleRegularMaintenanceTasks() {
-        // Run compliance checks every hour
-        maintenanceTimer.scheduleAtFixedRate(() -> {
-            try {
-                performBackgroundComplianceCheck();
-            } catch (Exception e) {
-                System.err.println("Background compliance check failed: " + e.getMessage());
-            }
-        }, 1, 1, TimeUnit.HOURS);
+        // No hourly compliance sweep any more - rules re-check themselves as things change
+        complianceEngine.evaluateAll();
 
         // Clean up old logs every 6 hours
         maintenanceTimer.scheduleAtFixedRate(() -> {
@@ -198,14 +314,262 @@ public class HospitalSystem implements Serializable {
             performanceMonitor.archiveOldMetrics();
         }, 6, 6, TimeUnit.HOURS);
 
+        // Roll the roster forward once a day, archiving old shifts
+        maintenanceTimer.scheduleAtFixedRate(() -> {
+            int archived = shiftRoster.advanceTo(LocalDate.now()) + onCallRoster.advanceTo(LocalDate.now());
+            if (archived > 0) {
+                activityLogger.logSystemEvent("ROSTER_COMPACTED", "Archived " + archived +
+                        " old shift slots, roster now runs to " + shiftRoster.lastRosterDay());
+            }
+            // New day, new week to cover - also a full reconcile of every rule
+            complianceEngine.evaluateAll();
+        }, 1, 1, TimeUnit.DAYS);
+
+        // One occupancy sample per ward per clock hour for the compliance forecast, starting on
+        // the hour so the forecast's daily pattern lines up with the clock
+        LocalDateTime startedAt = LocalDateTime.now();
+        long untilNextHour = Duration.between(startedAt, startedAt.truncatedTo(ChronoUnit.HOURS).plusHours(1)).toMillis();
+        maintenanceTimer.scheduleAtFixedRate(this::recordOccupancySample,
+                untilNextHour, TimeUnit.HOURS.toMillis(1), TimeUnit.MILLISECONDS);
+
         // Optimize resources every 30 minutes
         maintenanceTimer.scheduleAtFixedRate(() -> {
             resourceManager.optimizeResourceAllocation();
         }, 30, 30, TimeUnit.MINUTES);
 
+        // Refresh who's on call and the ward nurse ratios whenever a shift starts or ends
+        scheduleShiftBoundaryRefresh();
+
         System.out.println("🔧 Background maintenance tasks scheduled");
     }
 
+    // Also called when a template is added: the pending run is swapped for one at the new next boundary
+    private synchronized void scheduleShiftBoundaryRefresh() {
+        if (nextShiftBoundaryRefresh != null) {
+            nextShiftBoundaryRefresh.cancel(false);
+        }
+        try {
+            refreshWhoIsOnShift();
+        } catch (Exception e) {
+            System.err.println("Shift boundary refresh failed: " + e.getMessage());
+        }
+        // One-shot timer for the next boundary, so it follows whatever shift templates exist
+        long delay = Duration.between(LocalDateTime.now(), onCallIndex.getValidUntil()).toMillis();
+        nextShiftBoundaryRefresh = maintenanceTimer.schedule(this::scheduleShiftBoundaryRefresh,
+                Math.max(delay, 1000), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The compliance rules and what each one depends on
+     */
+    private void registerComplianceRules() {
+        complianceEngine.register(new ComplianceEngine.Rule("INSUFFICIENT_NURSES", ComplianceReport.Severity.CRITICAL,
+                EnumSet.of(ComplianceEngine.Topic.NURSES), (changedID, engine) -> {
+            if (allNurses.size() < 2) {
+                engine.raise("INSUFFICIENT_NURSES", new ComplianceIssue("INSUFFICIENT_NURSES",
+                        "Need minimum 2 nurses for shift coverage. Current: " + allNurses.size()));
+            } else {
+                engine.clear("INSUFFICIENT_NURSES");
+            }
+        }));
+
+        complianceEngine.register(new ComplianceEngine.Rule("NO_DOCTOR_AVAILABLE", ComplianceReport.Severity.CRITICAL,
+                EnumSet.of(ComplianceEngine.Topic.DOCTORS), (changedID, engine) -> {
+            if (allDoctors.size() < 1) {
+                engine.raise("NO_DOCTOR_AVAILABLE", new ComplianceIssue("NO_DOCTOR_AVAILABLE",
+                        "Need at least 1 doctor for daily prescription duties"));
+            } else {
+                engine.clear("NO_DOCTOR_AVAILABLE");
+            }
+        }));
+
+        // Coverage is already tracked by the roster, so this is an O(1) check
+        complianceEngine.register(new ComplianceEngine.Rule("UNCOVERED_SHIFTS", ComplianceReport.Severity.WARNING,
+                EnumSet.of(ComplianceEngine.Topic.SHIFTS), (changedID, engine) -> {
+            if (shiftRoster.hasUncoveredShifts()) {
+                engine.raise("UNCOVERED_SHIFTS", new ComplianceIssue("UNCOVERED_SHIFTS",
+                        "Shifts without coverage: " + String.join(", ", shiftRoster.findUncoveredShifts())));
+            } else {
+                engine.clear("UNCOVERED_SHIFTS");
+            }
+        }));
+
+        // Only the nurse whose shifts changed is looked at; a full check runs in parallel for big pools
+        complianceEngine.register(new ComplianceEngine.Rule("NURSE_HOUR_VIOLATION", ComplianceReport.Severity.CRITICAL,
+                EnumSet.of(ComplianceEngine.Topic.SHIFTS), (changedID, engine) -> {
+            if (changedID == null) {
+                engine.reconcile(HOUR_VIOLATION_KEY, findNurseHourViolations());
+                return;
+            }
+            Nurse nurse = allNurses.get(changedID);
+            LocalDate overLimit = nurse == null ? null
+                    : shiftRoster.firstDayOverLimit(changedID, mySettings.getMaxHoursPerNursePerDay());
+            if (overLimit != null) {
+                engine.raise(HOUR_VIOLATION_KEY + changedID, hourViolationFor(nurse, overLimit));
+            } else {
+                engine.clear(HOUR_VIOLATION_KEY + changedID);
+            }
+        }));
+
+        complianceEngine.register(new ComplianceEngine.Rule("OVERCROWDING_RISK", ComplianceReport.Severity.WARNING,
+                EnumSet.of(ComplianceEngine.Topic.BEDS), (changedID, engine) -> {
+            double occupancyRate = calculateCurrentOccupancyRate();
+            if (occupancyRate > OVERCROWDING_PERCENT) {
+                engine.raise("OVERCROWDING_RISK", new ComplianceIssue("OVERCROWDING_RISK",
+                        "Bed occupancy at " + String.format("%.1f%%", occupancyRate) + " - risk of overcrowding"));
+            } else {
+                engine.clear("OVERCROWDING_RISK");
+            }
+        }));
+
+        // The ratios themselves are kept by NurseStaffingRatios; this just turns its breached
+        // wards into violations so they count towards safety compliance like everything else
+        complianceEngine.register(new ComplianceEngine.Rule("NURSE_RATIO_BREACH", ComplianceReport.Severity.CRITICAL,
+                EnumSet.of(ComplianceEngine.Topic.STAFFING), (changedID, engine) -> {
+            if (changedID == null) {
+                Map<String, ComplianceIssue> breaches = new HashMap<>();
+                for (String wardID : occupancyCounters.getWardIDs()) {
+                    if (staffingRatios.isBreached(wardID)) {
+                        breaches.put(RATIO_BREACH_KEY + wardID, ratioBreachFor(wardID));
+                    }
+                }
+                engine.reconcile(RATIO_BREACH_KEY, breaches);
+            } else if (staffingRatios.isBreached(changedID)) {
+                engine.raise(RATIO_BREACH_KEY + changedID, ratioBreachFor(changedID));
+            } else {
+                engine.clear(RATIO_BREACH_KEY + changedID);
+            }
+        }));
+
+        // New violations show up straight away instead of at the next sweep
+        complianceEngine.onNewViolation((key, issue) -> {
+            activityLogger.logComplianceIssue(issue.getRuleName(), issue.getDescription());
+            performanceMonitor.recordComplianceCheck(false);
+            System.out.println("⚠️ Compliance: " + issue.getDescription());
+        });
+    }
+
+    /**
+     * Every nurse over their daily hours, keyed for the compliance engine
+     * Large pools are split across the fork-join pool by the map itself; every piece puts its
+     * violators straight into one concurrent map, so nothing is copied or merged afterwards
+     */
+    private Map<String, ComplianceIssue> findNurseHourViolations() {
+        ConcurrentHashMap<String, ComplianceIssue> violations = new ConcurrentHashMap<>();
+        allNurses.forEachValue(NURSE_CHECK_PARALLEL_THRESHOLD, nurse -> {
+            LocalDate overLimit = shiftRoster.firstDayOverLimit(nurse.getStaffID(), mySettings.getMaxHoursPerNursePerDay());
+            if (overLimit != null) {
+                violations.put(HOUR_VIOLATION_KEY + nurse.getStaffID(), hourViolationFor(nurse, overLimit));
+            }
+        });
+        return violations;
+    }
+
+    // Hours come from the dated roster (the Nurse's own hour count only knows weekday keys)
+    private ComplianceIssue hourViolationFor(Nurse nurse, LocalDate date) {
+        return new ComplianceIssue("NURSE_HOUR_VIOLATION", "Nurse " + nurse.getFullName() + " exceeds "
+                + mySettings.getMaxHoursPerNursePerDay() + "-hour daily limit on " + date + " ("
+                + shiftRoster.minutesOnDay(nurse.getStaffID(), date) / 60.0 + " hours rostered)");
+    }
+
+    private ComplianceIssue ratioBreachFor(String wardID) {
+        return new ComplianceIssue("NURSE_RATIO_BREACH", wardID + " is over the nurse-to-patient ratio (max "
+                + staffingRatios.getMaxPatientsPerNurse() + " patients per nurse on shift)");
+    }
+
+    /**
+     * Work out who is on shift / on call right now and re-check every ward's nurse ratio
+     */
+    private void refreshWhoIsOnShift() {
+        LocalDateTime now = LocalDateTime.now();
+        onCallIndex.refresh(now);
+        staffingRatios.refreshOnShift(shiftRoster.whoIsOnShiftAt(now));
+        for (String wardID : occupancyCounters.getWardIDs()) {
+            wardStaffingChanged(wardID);
+        }
+    }
+
+    /**
+     * Update just the dashboard numbers a change can affect (topic null = all of them)
+     * Values are read inside updateAndGet so a retry after losing a race picks up the newer state
+     */
+    private void refreshDashboard(ComplianceEngine.Topic topic) {
+        if (topic == null || topic == ComplianceEngine.Topic.SHIFTS) {
+            dashboard.updateAndGet(current -> current.withShiftCoverage(percentOf(
+                    shiftRoster.getCoverageSlotCount() - shiftRoster.getUncoveredShiftCount(),
+                    shiftRoster.getCoverageSlotCount())));
+        }
+        if (topic == null || topic == ComplianceEngine.Topic.BEDS) {
+            dashboard.updateAndGet(current -> current.withBedUsage(occupancyCounters.getOccupancyRate()));
+        }
+        // Only wards with home-ward nurses have a ratio, so only they count (none = fully staffed)
+        if (topic == null || topic == ComplianceEngine.Topic.STAFFING) {
+            dashboard.updateAndGet(current -> current.withStaffingLevel(percentOf(
+                    staffingRatios.getTrackedWardCount() - staffingRatios.getBreachedWardCount(),
+                    staffingRatios.getTrackedWardCount())));
+        }
+        // Safety only moves when the set of open violations does
+        dashboard.updateAndGet(current -> {
+            ComplianceReport report = complianceEngine.report();
+            if (report.getVersion() == current.getComplianceVersion()) {
+                return current;
+            }
+            Set<String> failingRules = new HashSet<>();
+            for (ComplianceReport.Violation violation : report.getViolations()) {
+                failingRules.add(violation.getRuleName());
+            }
+            int rules = complianceEngine.getRuleCount();
+            return current.withSafety(percentOf(rules - failingRules.size(), rules),
+                    report.getViolations().size(), report.getVersion());
+        });
+    }
+
+    private static double percentOf(int part, int whole) {
+        return whole > 0 ? (part * 100.0) / whole : 100.0;
+    }
+
+    // Point the forecaster at the wards and bed counts as they are now (startup, restore)
+    private void syncForecasterWards() {
+        String[] wardIDs = occupancyCounters.getWardIDs().toArray(new String[0]);
+        Arrays.sort(wardIDs);
+        int[] beds = new int[wardIDs.length];
+        for (int ward = 0; ward < wardIDs.length; ward++) {
+            beds[ward] = occupancyCounters.getTotalBeds(wardIDs[ward]);
+        }
+        complianceForecaster.setWards(wardIDs, beds);
+    }
+
+    private void recordOccupancySample() {
+        // The timer can run a little early or late, so label the sample with the nearest hour
+        LocalDateTime hour = LocalDateTime.now().plusMinutes(30).truncatedTo(ChronoUnit.HOURS);
+        String[] wardIDs = complianceForecaster.getWardIDs();
+        long[] occupied = new long[wardIDs.length];
+        for (int ward = 0; ward < wardIDs.length; ward++) {
+            occupied[ward] = occupancyCounters.getOccupiedBeds(wardIDs[ward]);
+        }
+        complianceForecaster.recordHour(hour, occupied);
+    }
+
+    private void occupancyChanged(String wardID) {
+        wardStaffingChanged(wardID);
+        complianceEngine.changed(ComplianceEngine.Topic.BEDS, wardID);
+    }
+
+    /**
+     * Record a ward's patients-per-nurse and flag it the moment it goes over the limit
+     */
+    private void wardStaffingChanged(String wardID) {
+        double patientsPerNurse = staffingRatios.getPatientsPerNurse(wardID);
+        if (staffingRatios.isTracked(wardID)) {
+            performanceMonitor.recordNurseRatio(wardID, patientsPerNurse);
+        }
+        if (staffingRatios.checkForNewBreach(wardID)) {
+            complianceWatcher.reportStaffingBreach(wardID, patientsPerNurse, staffingRatios.getMaxPatientsPerNurse());
+        }
+        // Logging and the dashboard follow from the NURSE_RATIO_BREACH rule
+        complianceEngine.changed(ComplianceEngine.Topic.STAFFING, wardID);
+    }
+
     /**
      * Add a new doctor to the system
      */
@@ -240,6 +604,7 @@ public class HospitalSystem implements Serializable {
                 "Added Dr. " + newDoctor.getFullName() + " to system");
 
         // Trigger compliance recheck
+        complianceEngine.changed(ComplianceEngine.Topic.DOCTORS, newDoctor.getStaffID());
         backgroundWorker.submit(() -> checkComplianceAfterStaffChange());
 
         System.out.println("✅ Dr. " + newDoctor.getFullName() + " successfully added to system");
@@ -278,83 +643,368 @@ public class HospitalSystem implements Serializable {
         activityLogger.logStaffAction("NURSE_ADDED", "SYSTEM",
                 "Added Nurse " + newNurse.getFullName() + " to system");
 
-        // Update scheduling possibilities
-        scheduleManager.updateAvailableNurses(allNurses.values());
+        // Tell the schedule manager about this one nurse (not the whole list again)
+        for (NurseRegistryListener listener : nurseListeners) {
+            listener.nurseAdded(newNurse);
+        }
 
         System.out.println("✅ Nurse " + newNurse.getFullName() + " successfully added to system");
         return newNurse;
     }
 
     /**
-     * Assign a nurse to a specific shift
+     * Take a nurse out of the system, including all their upcoming shifts
+     */
+    public boolean removeNurse(String nurseID) {
+        Nurse removed = allNurses.remove(nurseID);
+        if (removed == null) {
+            System.out.println("❌ Nurse not found: " + nurseID);
+            return false;
+        }
+
+        for (NurseRegistryListener listener : nurseListeners) {
+            listener.nurseRemoved(removed);
+        }
+
+        activityLogger.logStaffAction("NURSE_REMOVED", "SYSTEM",
+                "Removed Nurse " + removed.getFullName() + " from system");
+        backgroundWorker.submit(() -> checkComplianceAfterStaffChange());
+
+        System.out.println("✅ Nurse " + removed.getFullName() + " removed from system");
+        return true;
+    }
+
+    /**
+     * Give a nurse a home ward; while they're on shift they count towards that ward's ratio
+     */
+    public boolean assignNurseToWard(String nurseID, String wardID) {
+        Nurse nurse = allNurses.get(nurseID);
+        if (nurse == null || !occupancyCounters.getWardIDs().contains(wardID)) {
+            System.out.println("❌ Unknown nurse or ward: " + nurseID + " / " + wardID);
+            return false;
+        }
+        // Only the ward they left and the ward they joined can change
+        String previousWard = staffingRatios.setHomeWard(nurseID, wardID);
+        if (previousWard != null && !previousWard.equals(wardID)) {
+            wardStaffingChanged(previousWard);
+        }
+        wardStaffingChanged(wardID);
+
+        activityLogger.logStaffAction("NURSE_WARD_ASSIGNED", "SYSTEM",
+                "Nurse " + nurse.getFullName() + " works on " + wardID);
+        return true;
+    }
+
+    /**
+     * Patients per nurse on shift on a ward right now (NaN if no nurse has it as home ward)
+     */
+    public double getNurseRatio(String wardID) {
+        return staffingRatios.getPatientsPerNurse(wardID);
+    }
+
+    /**
+     * Would admitting one more patient to this ward stay within the nurse ratio?
+     */
+    public boolean canAdmitToWard(String wardID) {
+        return staffingRatios.canAdmit(wardID);
+    }
+
+    /**
+     * Assign a nurse to a specific shift (the next date that falls on that day)
      */
     public boolean assignNurseToShift(String nurseID, String dayName, String shiftType) {
+        DayOfWeek day;
+        try {
+            day = DayOfWeek.valueOf(dayName.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Unknown day: " + dayName);
+            return false;
+        }
+        return assignNurseToShift(nurseID, shiftRoster.nextDateFor(day), shiftType);
+    }
+
+    /**
+     * Assign a nurse to a shift on a specific date within the rolling roster
+     */
+    public boolean assignNurseToShift(String nurseID, LocalDate date, String shiftType) {
         Nurse targetNurse = allNurses.get(nurseID);
         if (targetNurse == null) {
             System.out.println("❌ Nurse not found: " + nurseID);
             return false;
         }
 
-        String shiftKey = dayName.toLowerCase() + "_" + shiftType.toLowerCase();
+        ShiftType shift;
+        try {
+            shift = shiftTemplates.fromName(shiftType);
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Unknown shift: " + shiftType);
+            return false;
+        }
 
+        // Check overlaps and the daily hour limit and book the hours in one go
+        RollingRoster.RosterSlot slot;
         try {
-            // Check if nurse already has too many hours
-            if (wouldExceedHourLimit(targetNurse, shiftKey)) {
-                System.out.println("❌ Assignment would exceed 8-hour daily limit for nurse");
+            slot = shiftRoster.slotFor(date, shift);
+            if (!shiftRoster.assign(nurseID, date, shift, mySettings.getMaxHoursPerNursePerDay())) {
+                System.out.println("❌ Shift overlaps another one or would exceed the "
+                        + mySettings.getMaxHoursPerNursePerDay() + "-hour daily limit for nurse");
                 return false;
             }
+        } catch (IllegalArgumentException outsideRoster) {
+            System.out.println("❌ " + outsideRoster.getMessage());
+            return false;
+        }
 
-            // Try to assign the shift
-            boolean assigned = scheduleManager.assignNurseToShift(nurseID, shiftKey);
+        // The rolling roster is the only record of dated shifts (the schedule manager just
+        // keeps the weekly templates), so once the hours are booked the shift is assigned
+        targetNurse.addShiftAssignment(slot.getKey());
+        activityLogger.logStaffAction("SHIFT_ASSIGNED", "SYSTEM",
+                "Nurse " + targetNurse.getFullName() + " assigned to " + slot.getKey());
+        if (slot.covers(LocalDateTime.now())) {
+            String homeWard = staffingRatios.setOnShift(nurseID, true);
+            if (homeWard != null) {
+                wardStaffingChanged(homeWard);
+            }
+        }
+        complianceEngine.changed(ComplianceEngine.Topic.SHIFTS, nurseID);
 
-            if (assigned) {
-                targetNurse.addShiftAssignment(shiftKey);
-                activityLogger.logStaffAction("SHIFT_ASSIGNED", "SYSTEM",
-                        "Nurse " + targetNurse.getFullName() + " assigned to " + shiftKey);
+        // Trigger compliance recheck
+        backgroundWorker.submit(() -> checkShiftComplianceAfterAssignment());
 
-                // Trigger compliance recheck
-                backgroundWorker.submit(() -> checkShiftComplianceAfterAssignment());
+        System.out.println("✅ Shift assigned successfully");
+        return true;
+    }
 
-                System.out.println("✅ Shift assigned successfully");
-                return true;
-            } else {
-                System.out.println("❌ Shift assignment failed - slot might be full");
+    /**
+     * Put a doctor on call for a shift on a specific date
+     */
+    public boolean assignDoctorOnCall(String doctorID, LocalDate date, String shiftType) {
+        Doctor doctor = allDoctors.get(doctorID);
+        if (doctor == null) {
+            System.out.println("❌ Doctor not found: " + doctorID);
+            return false;
+        }
+
+        try {
+            ShiftType shift = shiftTemplates.fromName(shiftType);
+            if (!onCallRoster.assign(doctorID, date, shift, MAX_ON_CALL_HOURS_PER_DAY)) {
+                System.out.println("❌ On-call shift overlaps another one or exceeds "
+                        + MAX_ON_CALL_HOURS_PER_DAY + " hours that day");
                 return false;
             }
+            RollingRoster.RosterSlot slot = onCallRoster.slotFor(date, shift);
+            if (slot.covers(LocalDateTime.now())) {
+                onCallIndex.refresh(LocalDateTime.now());
+            }
 
-        } catch (SchedulingConflictException e) {
-            System.out.println("❌ Scheduling conflict: " + e.getMessage());
+            activityLogger.logStaffAction("DOCTOR_ON_CALL", "SYSTEM",
+                    "Dr. " + doctor.getFullName() + " on call for " + slot.getKey());
+            System.out.println("✅ Dr. " + doctor.getFullName() + " on call for " + slot.getKey());
+            return true;
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Take a doctor off an on-call shift
+     */
+    public boolean removeDoctorOnCall(String doctorID, LocalDate date, String shiftType) {
+        ShiftType shift;
+        try {
+            shift = shiftTemplates.fromName(shiftType);
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Unknown shift: " + shiftType);
+            return false;
+        }
+        if (!onCallRoster.unassign(doctorID, date, shift)) {
+            System.out.println("❌ " + doctorID + " is not on call for " + date + " " + shift.name());
+            return false;
+        }
+        if (onCallRoster.slotFor(date, shift).covers(LocalDateTime.now())) {
+            onCallIndex.refresh(LocalDateTime.now());
+        }
+        activityLogger.logStaffAction("DOCTOR_OFF_CALL", "SYSTEM",
+                doctorID + " taken off call for " + date + " " + shift.name());
+        return true;
+    }
+
+    /**
+     * Remove a doctor from the system, including every on-call shift they had
+     */
+    public boolean removeDoctor(String doctorID) {
+        Doctor removed = allDoctors.remove(doctorID);
+        if (removed == null) {
+            System.out.println("❌ Doctor not found: " + doctorID);
+            return false;
+        }
+        onCallRoster.removeStaff(doctorID);
+        onCallIndex.refresh(LocalDateTime.now());
+
+        activityLogger.logStaffAction("DOCTOR_REMOVED", "SYSTEM",
+                "Removed Dr. " + removed.getFullName() + " from system");
+        complianceEngine.changed(ComplianceEngine.Topic.DOCTORS, doctorID);
+        backgroundWorker.submit(() -> checkComplianceAfterStaffChange());
+
+        System.out.println("✅ Dr. " + removed.getFullName() + " removed from system");
+        return true;
+    }
+
+    /**
+     * A doctor of the given specialty who is on call right now, or null if there isn't one
+     */
+    public Doctor findDoctorOnCall(String specialty) {
+        String doctorID = onCallIndex.doctorOnCall(specialty);
+        return doctorID == null ? null : allDoctors.get(doctorID);
+    }
+
+    /**
+     * Everyone on shift at the given moment
+     */
+    public Set<String> whoIsOnShiftAt(LocalDateTime instant) {
+        return shiftRoster.whoIsOnShiftAt(instant);
+    }
+
+    /**
+     * Fill every under-staffed shift from today up to the given date with the nurses we have
+     * Planning stops when the time budget runs out; returns how many shifts were assigned
+     */
+    public int autoFillUncoveredShifts(LocalDate until, Duration timeBudget) {
+        long startTime = System.currentTimeMillis();
+        RosterSolver solver = new RosterSolver(shiftRoster, allNurses.keySet(),
+                NURSES_NEEDED_PER_SHIFT, mySettings.getMaxHoursPerNursePerDay());
+        List<RosterSolver.PlannedShift> plan = solver.fill(shiftRoster.getToday(), until, timeBudget);
+
+        // Each planned shift is booked on its own (the calendar gets the final say). A shift that
+        // clashes with something changed since planning is skipped - the rest of the fill still goes in
+        int maxHours = mySettings.getMaxHoursPerNursePerDay();
+        List<RosterEntry> booked = new ArrayList<>(plan.size());
+        List<ShiftType> bookedShifts = new ArrayList<>(plan.size());
+        int skipped = 0;
+        for (RosterSolver.PlannedShift planned : plan) {
+            if (!allNurses.containsKey(planned.getStaffID())
+                    || !shiftRoster.assign(planned.getStaffID(), planned.getDate(), planned.getShift(), maxHours)) {
+                skipped++;
+                continue;
+            }
+            booked.add(new RosterEntry(planned.getStaffID(), planned.getDate(), planned.getShift().name()));
+            bookedShifts.add(planned.getShift());
+        }
+        if (!booked.isEmpty()) {
+            rosterBooked(booked, bookedShifts.toArray(new ShiftType[0]));
+            activityLogger.logStaffAction("ROSTER_AUTO_FILLED", "SYSTEM",
+                    "Roster solver assigned " + booked.size() + " shifts, skipped " + skipped + " that clashed");
+        }
+        if (skipped > 0) {
+            System.out.println("⚠️ " + skipped + " planned shifts clashed with changes made while planning and were skipped");
+        }
+
+        System.out.println("📅 Roster solver assigned " + booked.size() + " shifts in "
+                + (System.currentTimeMillis() - startTime) + "ms");
+        return booked.size();
+    }
+
+    /**
+     * Apply a whole roster at once: either every entry is assigned or none are
+     * One audit entry and one coverage check for the lot instead of one per shift
+     */
+    public CheckResult applyRoster(List<RosterEntry> entries) {
+        long startTime = System.currentTimeMillis();
+        int maxHours = mySettings.getMaxHoursPerNursePerDay();
+
+        // Validate everything before touching anything
+        List<String> problems = new ArrayList<>();
+        ShiftType[] shifts = new ShiftType[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            RosterEntry entry = entries.get(i);
+            if (!allNurses.containsKey(entry.getNurseID())) {
+                problems.add("unknown nurse " + entry.getNurseID());
+                continue;
+            }
+            try {
+                shifts[i] = shiftTemplates.fromName(entry.getShiftType());
+                shiftRoster.slotFor(entry.getDate(), shifts[i]);
+            } catch (IllegalArgumentException badEntry) {
+                problems.add(entry + ": " + badEntry.getMessage());
+            }
+        }
+        if (!problems.isEmpty()) {
+            return rosterRejected(problems);
+        }
+
+        // Book the hours; a clash (overlap or daily limit) undoes the entries booked so far.
+        // Dated shifts only go into the rolling roster - the same weekday in different weeks is
+        // a different slot there, where the schedule manager's weekly slots would collide
+        int booked = 0;
+        while (booked < entries.size()) {
+            RosterEntry entry = entries.get(booked);
+            if (!shiftRoster.assign(entry.getNurseID(), entry.getDate(), shifts[booked], maxHours)) {
+                problems.add(entry + ": overlaps another shift or exceeds the daily hour limit");
+                break;
+            }
+            booked++;
+        }
+
+        if (!problems.isEmpty()) {
+            for (int i = 0; i < booked; i++) {
+                shiftRoster.unassign(entries.get(i).getNurseID(), entries.get(i).getDate(), shifts[i]);
+            }
+            return rosterRejected(problems);
+        }
+
+        rosterBooked(entries, shifts);
+        activityLogger.logStaffAction("ROSTER_APPLIED", "SYSTEM",
+                "Applied roster of " + entries.size() + " shift assignments");
+
+        System.out.println("✅ Roster applied: " + entries.size() + " assignments in "
+                + (System.currentTimeMillis() - startTime) + "ms");
+        return new CheckResult(true, "Applied " + entries.size() + " assignments");
+    }
+
+    /**
+     * Follow-up for shifts already booked in the rolling roster: the nurses' own records,
+     * the on-shift counts for shifts happening right now and one compliance pass for the lot
+     */
+    private void rosterBooked(List<RosterEntry> entries, ShiftType[] shifts) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> wardsChanged = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            RosterEntry entry = entries.get(i);
+            RollingRoster.RosterSlot slot = shiftRoster.slotFor(entry.getDate(), shifts[i]);
+            Nurse nurse = allNurses.get(entry.getNurseID());
+            if (nurse != null) {
+                nurse.addShiftAssignment(slot.getKey());
+            }
+            // Most of a roster is in the future and doesn't change who's working now
+            if (slot.covers(now)) {
+                String homeWard = staffingRatios.setOnShift(entry.getNurseID(), true);
+                if (homeWard != null) {
+                    wardsChanged.add(homeWard);
+                }
+            }
+        }
+        for (String wardID : wardsChanged) {
+            wardStaffingChanged(wardID);
+        }
+        // One reconcile over every nurse instead of a re-check per nurse in the batch
+        complianceEngine.changed(ComplianceEngine.Topic.SHIFTS, null);
+        backgroundWorker.submit(() -> checkShiftComplianceAfterAssignment());
+    }
+
     /**
      * Smart patient admission using my advanced bed finding algorithm
      */
     public Patient admitPatientToBed(PatientDetails patientInfo, BestBedSuggestion suggestion)
             throws PatientRegistrationProblem {
 
-        try {
-            // Double-check bed availability
-            PatientBed targetBed = suggestion.getBestBed();
-            if (targetBed.isOccupied()) {
-                throw new PatientRegistrationProblem("Recommended bed is no longer available");
-            }
-
-            // Create patient object
-            Patient newPatient = new Patient(
-                    patientInfo.getPatientID(),
-                    patientInfo.getFullName(),
-                    patientInfo.getEmail(),
-                    patientInfo.getPhone(),
-                    patientInfo.getGender(),
-                    patientInfo.getMainCondition(),
-                    patientInfo.needsIsolation()
-            );
+        // Atomically claim a bed first - if another admission beat us to it we get re-routed
+        PatientBed targetBed = claimBedForAdmission(patientInfo, suggestion);
 
-            // Assign to bed
-            targetBed.assignPatient(newPatient);
-            allPatients.put(newPatient.getPatientID(), newPatient);
+        try {
+            // Create patient object and assign to bed
+            Patient newPatient = createPatientRecord(patientInfo);
+            putPatientInBed(newPatient, targetBed);
 
             // Log the admission
             activityLogger.logPatientAction("PATIENT_ADMITTED", "SYSTEM",
@@ -371,10 +1021,163 @@ public class HospitalSystem implements Serializable {
             return newPatient;
 
         } catch (Exception e) {
+            // Don't leave the bed claimed by a patient that never got admitted
+            if (!targetBed.isOccupied()) {
+                releaseBed(bedRegistry.locateBed(targetBed.getBedID()), patientInfo.getPatientID());
+            }
             throw new PatientRegistrationProblem("Patient admission failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Claim the suggested bed, or the next best one if a concurrent admission already took it
+     */
+    private PatientBed claimBedForAdmission(PatientDetails patientInfo, BestBedSuggestion suggestion)
+            throws PatientRegistrationProblem {
+        BestBedSuggestion current = suggestion;
+        long patientNeeds = bedFindingSystem.needsOf(patientInfo);
+        for (int attempt = 0; attempt < MAX_BED_CLAIM_ATTEMPTS; attempt++) {
+            if (current == null || !current.foundSomething()) {
+                break;
+            }
+            PatientBed candidate = current.getBestBed();
+            BedRegistry.BedLocation spot = bedRegistry.locateBed(candidate.getBedID());
+            if (spot != null && BedSuitability.suits(patientNeeds, spot.getCapabilities())
+                    && claimBed(spot, patientInfo.getPatientID(), patientNeeds)) {
+                return candidate;
+            }
+            // Lost the race for this bed (or it doesn't suit) - a winner's claim already took it out
+            // of the free-bed index, so asking again gives us the next best bed
+            current = bedFindingSystem.findBestBed(patientInfo);
+        }
+        throw new PatientRegistrationProblem("Recommended bed is no longer available and no other bed could be claimed");
+    }
+
+    /**
+     * Admit a whole group of patients at once (mass-casualty intake)
+     * The bed solver plans the whole group together (so one patient taking a bed doesn't leave
+     * a harder-to-place one with nothing), then the logging, metrics and resource optimization
+     * happen once for the batch instead of per patient
+     */
+    public BatchAdmissionResult admitPatientsBatch(List<PatientDetails> incomingPatients) {
+        // Nobody already in a bed is moved, it's only the free beds shared out between the new patients
+        BedAssignmentPlan plan = bedFindingSystem.planAssignments(incomingPatients, List.of(), BATCH_PLAN_TIME_BUDGET);
+        Map<String, PatientDetails> incomingByID = new HashMap<>();
+        for (PatientDetails patientInfo : incomingPatients) {
+            incomingByID.put(patientInfo.getPatientID(), patientInfo);
+        }
+
+        List<Patient> admitted = new ArrayList<>();
+        List<PatientDetails> notPlaced = new ArrayList<>();
+        Set<String> wardsChanged = new HashSet<>();
+        for (String unplacedID : plan.getUnplacedPatientIDs()) {
+            notPlaced.add(incomingByID.get(unplacedID));
+        }
+        for (BedAssignmentPlan.Placement placement : plan.getPlacements()) {
+            PatientDetails patientInfo = incomingByID.get(placement.getPatientID());
+            BedRegistry.BedLocation planned = bedRegistry.locateBed(placement.getBedID());
+            PatientBed bed = planned.getBed();
+            if (!claimBed(planned, patientInfo.getPatientID(), bedFindingSystem.needsOf(patientInfo))) {
+                // Someone outside the batch got the planned bed first - take the best one still free
+                bed = claimFreeBedFor(patientInfo);
+            }
+            if (bed == null) {
+                notPlaced.add(patientInfo);
+                continue;
+            }
+            Patient newPatient = createPatientRecord(patientInfo);
+            try {
+                wardsChanged.add(placePatientInBed(newPatient, bed));
+                admitted.add(newPatient);
+            } catch (Exception e) {
+                if (!bed.isOccupied()) {
+                    releaseBed(bedRegistry.locateBed(bed.getBedID()), patientInfo.getPatientID());
+                }
+                notPlaced.add(patientInfo);
+            }
+        }
+
+        // One ratio/compliance re-check per ward, then one audit entry, one metrics update
+        // and one optimization run for the whole batch
+        for (String wardID : wardsChanged) {
+            occupancyChanged(wardID);
+        }
+        for (PatientDetails waiting : notPlaced) {
+            waitingList.add(waiting, bedFindingSystem.needsOf(waiting));
+        }
+        activityLogger.logPatientAction("PATIENTS_ADMITTED_BATCH", "SYSTEM",
+                "Batch admission: " + admitted.size() + " admitted, " + notPlaced.size() + " put on the waiting list");
+        performanceMonitor.recordBedOccupancy(calculateCurrentOccupancyRate());
+        if (!admitted.isEmpty()) {
+            backgroundWorker.submit(() -> resourceManager.optimizeResourceAllocation());
+        }
+
+        System.out.println("✅ Batch admission done: " + admitted.size() + " of " +
+                incomingPatients.size() + " patients admitted");
+        return new BatchAdmissionResult(admitted, notPlaced);
+    }
+
+    /**
+     * Work out the best overall bed plan for a group of waiting patients (solver mode)
+     * If allowMovingCurrentPatients is true, patients already in beds can be moved to make
+     * room. The plan is returned for review - nothing is admitted or moved here
+     */
+    public BedAssignmentPlan planBedAssignments(List<PatientDetails> pending, boolean allowMovingCurrentPatients,
+                                                Duration timeBudget) {
+        List<Patient> movable = allowMovingCurrentPatients ? new ArrayList<>(allPatients.values()) : List.of();
+        BedAssignmentPlan plan = bedFindingSystem.planAssignments(pending, movable, timeBudget);
+
+        activityLogger.logPatientAction("BED_PLAN_CREATED", "SYSTEM",
+                "Bed plan for " + pending.size() + " patients: " + plan.getPlacements().size() +
+                        " placements, fit " + plan.getTotalFit() + " in " + plan.getSolveMillis() + " ms");
+        return plan;
+    }
+
+    /**
+     * Claim the best free bed that suits the patient straight from the free-bed index, or null if none is left
+     */
+    private PatientBed claimFreeBedFor(PatientDetails patientInfo) {
+        long patientNeeds = bedFindingSystem.needsOf(patientInfo);
+        for (int attempt = 0; attempt < MAX_BED_CLAIM_ATTEMPTS; attempt++) {
+            BedRegistry.BedLocation location = bedFindingSystem.findSuitableFreeBed(patientInfo);
+            if (location == null) {
+                return null;
+            }
+            if (claimBed(location, patientInfo.getPatientID(), patientNeeds)) {
+                return location.getBed();
+            }
+        }
+        return null;
+    }
+
+    private Patient createPatientRecord(PatientDetails patientInfo) {
+        return new Patient(
+                patientInfo.getPatientID(),
+                patientInfo.getFullName(),
+                patientInfo.getEmail(),
+                patientInfo.getPhone(),
+                patientInfo.getGender(),
+                patientInfo.getMainCondition(),
+                patientInfo.needsIsolation()
+        );
+    }
+
+    private void putPatientInBed(Patient patient, PatientBed claimedBed) {
+        occupancyChanged(placePatientInBed(patient, claimedBed));
+    }
+
+    // Same as putPatientInBed without the ratio/compliance/dashboard events, for batches that
+    // fire them once per ward at the end. Returns the ward the bed is on.
+    private String placePatientInBed(Patient patient, PatientBed claimedBed) {
+        claimedBed.assignPatient(patient);
+        String wardID = wardOf(claimedBed);
+        occupancyCounters.bedTaken(wardID);
+        allPatients.put(patient.getPatientID(), patient);
+        // However they got a bed, they're not waiting for one any more
+        waitingList.remove(patient.getPatientID());
+        return wardID;
+    }
+
     /**
      * Move patient from one bed to another
      */
@@ -390,24 +1193,52 @@ public class HospitalSystem implements Serializable {
             throw new BedMovementException("Target bed not found: " + toBedID);
         }
 
-        if (!sourceBed.isOccupied()) {
-            throw new BedMovementException("Source bed is empty: " + fromBedID);
-        }
+        BedRegistry.BedLocation sourceSpot = bedRegistry.locateBed(fromBedID);
+        BedRegistry.BedLocation targetSpot = bedRegistry.locateBed(toBedID);
+        Patient patientToMove;
 
-        if (targetBed.isOccupied()) {
-            throw new BedMovementException("Target bed is occupied: " + toBedID);
-        }
+        // Lock just these two beds, always in bed ID order so two opposite moves can't deadlock.
+        // Moves between other beds carry on in parallel; admissions still go through the claim CAS.
+        BedRegistry.lockBoth(sourceSpot, targetSpot);
+        try {
+            if (!sourceBed.isOccupied()) {
+                throw new BedMovementException("Source bed is empty: " + fromBedID);
+            }
 
-        Patient patientToMove = sourceBed.getCurrentPatient();
+            patientToMove = sourceBed.getCurrentPatient();
 
-        // Check if target bed is suitable
-        if (!targetBed.isSuitableForPatient(patientToMove)) {
-            throw new BedMovementException("Target bed not suitable for patient's needs");
+            // Check if target bed is suitable - the needs mask from admission against the bed's
+            // capabilities covers care level, isolation, gender, mobility and diet, no objects made
+            long patientNeeds = sourceSpot.getOccupantNeeds();
+            if (!BedSuitability.suits(patientNeeds, targetSpot.getCapabilities())) {
+                throw new BedMovementException("Target bed not suitable for patient's needs");
+            }
+
+            // Claim the target so a concurrent admission can't take it from under us
+            if (!claimBed(targetSpot, patientToMove.getPatientID(), patientNeeds)) {
+                throw new BedMovementException("Target bed is occupied: " + toBedID);
+            }
+
+            // Perform the move - the source bed is emptied first (the model keeps one bed per
+            // patient), but its claim is only let go once the target assignment has worked.
+            // If the assignment fails the patient goes back to the source and the target claim is dropped.
+            sourceBed.removePatient();
+            try {
+                targetBed.assignPatient(patientToMove);
+            } catch (RuntimeException e) {
+                sourceBed.assignPatient(patientToMove);
+                releaseBed(targetSpot, patientToMove.getPatientID());
+                throw new BedMovementException("Could not move patient to " + toBedID + ": " + e.getMessage());
+            }
+            releaseBed(sourceSpot, patientToMove.getPatientID());
+            occupancyCounters.bedFreed(sourceSpot.getWardID());
+            occupancyCounters.bedTaken(targetSpot.getWardID());
+        } finally {
+            BedRegistry.unlockBoth(sourceSpot, targetSpot);
         }
 
-        // Perform the move
-        sourceBed.removePatient();
-        targetBed.assignPatient(patientToMove);
+        occupancyChanged(sourceSpot.getWardID());
+        occupancyChanged(targetSpot.getWardID());
 
         // Log the move
         activityLogger.logPatientAction("PATIENT_MOVED", "SYSTEM",
@@ -422,45 +1253,64 @@ public class HospitalSystem implements Serializable {
     }
 
     /**
-     * Comprehensive compliance checking
+     * Discharge a patient and free their bed (which goes straight to the waiting list if anyone fits it)
      */
-    public void checkCompliance() throws ComplianceViolationException {
-        List<ComplianceIssue> violations = new ArrayList<>();
-
-        // Check minimum staffing requirements
-        if (allNurses.size() < 2) {
-            violations.add(new ComplianceIssue("INSUFFICIENT_NURSES",
-                    "Need minimum 2 nurses for shift coverage. Current: " + allNurses.size()));
+    public boolean dischargePatient(String patientID) throws BedMovementException {
+        Patient patient = allPatients.get(patientID);
+        if (patient == null || patient.getCurrentBed() == null) {
+            throw new BedMovementException("Patient is not in a bed: " + patientID);
         }
+        BedRegistry.BedLocation spot = bedRegistry.locateBed(patient.getCurrentBed().getBedID());
 
-        if (allDoctors.size() < 1) {
-            violations.add(new ComplianceIssue("NO_DOCTOR_AVAILABLE",
-                    "Need at least 1 doctor for daily prescription duties"));
+        // Same bed lock as moves, so a discharge can't happen half way through a move
+        BedRegistry.lockBoth(spot, spot);
+        try {
+            if (spot.getBed().getCurrentPatient() != patient) {
+                throw new BedMovementException("Patient was moved while being discharged: " + patientID);
+            }
+            spot.getBed().removePatient();
+            allPatients.remove(patientID);
+            occupancyCounters.bedFreed(spot.getWardID());
+            releaseBed(spot, patientID);
+        } finally {
+            BedRegistry.unlockBoth(spot, spot);
         }
 
-        // Check shift coverage
-        List<String> uncoveredShifts = scheduleManager.findUncoveredShifts();
-        if (!uncoveredShifts.isEmpty()) {
-            violations.add(new ComplianceIssue("UNCOVERED_SHIFTS",
-                    "Shifts without coverage: " + String.join(", ", uncoveredShifts)));
-        }
+        occupancyChanged(spot.getWardID());
 
-        // Check nurse hour limits
-        for (Nurse nurse : allNurses.values()) {
-            if (nurse.exceedsHourLimit()) {
-                violations.add(new ComplianceIssue("NURSE_HOUR_VIOLATION",
-                        "Nurse " + nurse.getFullName() + " exceeds 8-hour daily limit"));
-            }
-        }
+        activityLogger.logPatientAction("PATIENT_DISCHARGED", "SYSTEM",
+                "Patient " + patient.getFullName() + " discharged from bed " + spot.getBed().getBedID());
+        performanceMonitor.recordBedOccupancy(calculateCurrentOccupancyRate());
+
+        System.out.println("✅ Patient discharged successfully");
+        return true;
+    }
 
-        // Check bed utilization
-        double occupancyRate = calculateCurrentOccupancyRate();
-        if (occupancyRate > 95.0) {
-            violations.add(new ComplianceIssue("OVERCROWDING_RISK",
-                    "Bed occupancy at " + String.format("%.1f%%", occupancyRate) + " - risk of overcrowding"));
+    /**
+     * Put a patient on the waiting list - they get admitted automatically when a suitable bed frees up
+     */
+    public void addToWaitingList(PatientDetails patientInfo) {
+        waitingList.add(patientInfo, bedFindingSystem.needsOf(patientInfo));
+        activityLogger.logPatientAction("PATIENT_WAITING", "SYSTEM",
+                "Patient " + patientInfo.getFullName() + " added to waiting list (" + waitingList.size() + " waiting)");
+
+        // A bed may have come free between the failed search and now - don't wait for the next release
+        BedRegistry.BedLocation freeBed = bedFindingSystem.findSuitableFreeBed(patientInfo);
+        if (freeBed != null) {
+            long foundAt = System.nanoTime();
+            backgroundWorker.submit(() -> dispatchWaitingPatient(freeBed, foundAt));
         }
+    }
 
-        if (!violations.isEmpty()) {
+    /**
+     * Comprehensive compliance checking
+     */
+    public void checkCompliance() throws ComplianceViolationException {
+        // Kept for callers that expect an exception; getComplianceReport() is the non-throwing way
+        ComplianceReport report = getComplianceReport();
+
+        if (!report.isCompliant()) {
+            List<ComplianceReport.Violation> violations = report.getViolations();
             ComplianceViolationException mainViolation = new ComplianceViolationException(
                     "Multiple compliance violations detected",
                     violations.get(0).getRuleName(),
@@ -468,8 +1318,8 @@ public class HospitalSystem implements Serializable {
             );
 
             // Log all violations
-            for (ComplianceIssue issue : violations) {
-                activityLogger.logComplianceIssue(issue.getRuleName(), issue.getDescription());
+            for (ComplianceReport.Violation violation : violations) {
+                activityLogger.logComplianceIssue(violation.getRuleName(), violation.getDescription());
             }
 
             throw mainViolation;
@@ -479,10 +1329,77 @@ public class HospitalSystem implements Serializable {
         performanceMonitor.recordComplianceCheck(true);
     }
 
+    /**
+     * Every open compliance violation with its severity and when it started
+     * Doesn't throw, and is cheap enough to call after every change
+     */
+    public ComplianceReport getComplianceReport() {
+        return complianceEngine.report();
+    }
+
+    /**
+     * Latest dashboard numbers; kept up to date as things change, so this never recalculates
+     */
+    public ComplianceDashboard getComplianceDashboard() {
+        return dashboard.get();
+    }
+
+    /**
+     * Compliance problems expected over the next hoursAhead hours (at most 72)
+     * Occupancy is forecast from the hourly history; nurses on shift come from the roster itself,
+     * so a ward shows up here if its expected patients need more nurses than are rostered
+     */
+    public ComplianceForecast forecastCompliance(int hoursAhead) {
+        int hours = Math.max(1, Math.min(MAX_FORECAST_HOURS, hoursAhead));
+        LocalDateTime now = LocalDateTime.now();
+        ComplianceForecaster.Projection projection = complianceForecaster.forecast(now, hours);
+        if (projection == null) {
+            // No hourly samples yet, so nothing to forecast from
+            return new ComplianceForecast(now, hours, 0, new ArrayList<>());
+        }
+        LocalDateTime firstHour = projection.getFirstHour();
+        String[] wardIDs = projection.getWardIDs();
+        double[][] expectedPatients = projection.getOccupied();
+        int limit = staffingRatios.getMaxPatientsPerNurse();
+
+        // Rostered nurses per ward for every forecast hour, looked up once and shared by all wards
+        List<Map<String, Integer>> nursesByHour = new ArrayList<>(hours);
+        for (int hour = 0; hour < hours; hour++) {
+            nursesByHour.add(staffingRatios.countByHomeWard(shiftRoster.whoIsOnShiftAt(firstHour.plusHours(hour))));
+        }
+
+        List<ComplianceForecast.PredictedViolation> predicted = new ArrayList<>();
+        for (int ward = 0; ward < wardIDs.length; ward++) {
+            boolean overcrowdingFound = false;
+            // Same as the live check: a ward without home-ward nurses has no ratio to breach
+            boolean ratioFound = !staffingRatios.isTracked(wardIDs[ward]);
+            int beds = projection.getBeds(ward);
+            for (int hour = 0; hour < hours && !(overcrowdingFound && ratioFound); hour++) {
+                double patients = expectedPatients[ward][hour];
+                LocalDateTime at = firstHour.plusHours(hour);
+                double occupancyPercent = beds > 0 ? patients * 100.0 / beds : 0.0;
+                if (!overcrowdingFound && occupancyPercent > OVERCROWDING_PERCENT) {
+                    predicted.add(new ComplianceForecast.PredictedViolation(wardIDs[ward], "OVERCROWDING_RISK",
+                            at, occupancyPercent, OVERCROWDING_PERCENT));
+                    overcrowdingFound = true;
+                }
+                // Round so a forecast of 0.2 patients doesn't need a nurse
+                long roundedPatients = Math.round(patients);
+                int nurses = nursesByHour.get(hour).getOrDefault(wardIDs[ward], 0);
+                if (!ratioFound && roundedPatients > (long) nurses * limit) {
+                    predicted.add(new ComplianceForecast.PredictedViolation(wardIDs[ward], "NURSE_RATIO_BREACH", at,
+                            nurses == 0 ? Double.POSITIVE_INFINITY : (double) roundedPatients / nurses, limit));
+                    ratioFound = true;
+                }
+            }
+        }
+        return new ComplianceForecast(now, hours, projection.getHistoryHours(), predicted);
+    }
+
     /**
      * Get the smart bed finder system
      */
-    public SmartBedFinder getBedFinder() {
+    public BedFinder getBedFinder() {
         return this.bedFindingSystem;
     }
 
@@ -563,7 +1480,7 @@ public class HospitalSystem implements Serializable {
                 issues.append("No doctors available; ");
             }
 
-            if (scheduleManager.hasUncoveredShifts()) {
+            if (shiftRoster.hasUncoveredShifts()) {
                 issueCount++;
                 issues.append("Uncovered shifts; ");
             }
@@ -629,49 +1546,103 @@ public class HospitalSystem implements Serializable {
                 data.getCertificationType() != null && !data.getCertificationType().trim().isEmpty();
     }
 
-    private boolean wouldExceedHourLimit(Nurse nurse, String newShift) {
-        // Extract day from shift key
-        String day = newShift.split("_")[0];
+    private PatientBed findBedByID(String bedID) {
+        // O(1) lookup through the bed registry instead of scanning every ward/room/bed
+        return bedRegistry.findBed(bedID);
+    }
 
-        // Count existing hours for this day
-        int currentHours = nurse.getHoursForDay(day);
+    /**
+     * Claim a bed for a patient and take it out of the free-bed index
+     */
+    private boolean claimBed(BedRegistry.BedLocation location, String patientID, long patientNeeds) {
+        if (!location.tryClaim(patientID, patientNeeds)) {
+            return false;
+        }
+        freeBedIndex.bedTaken(location);
+        return true;
+    }
 
-        // Each shift is 8 hours, so adding another would exceed limit
-        return currentHours + 8 > 8;
+    /**
+     * Give a claimed bed back and put it back in the free-bed index
+     */
+    private void releaseBed(BedRegistry.BedLocation location, String patientID) {
+        // A bed just came free - hand it to the waiting list straight away
+        if (releaseClaim(location, patientID) && waitingList.size() > 0) {
+            long releasedAt = System.nanoTime();
+            backgroundWorker.submit(() -> dispatchWaitingPatient(location, releasedAt));
+        }
     }
 
-    private PatientBed findBedByID(String bedID) {
-        for (HospitalWard ward : myWards) {
-            for (PatientRoom room : ward.getAllRooms()) {
-                for (PatientBed bed : room.getAllBeds()) {
-                    if (bed.getBedID().equals(bedID)) {
-                        return bed;
-                    }
-                }
+    // releaseBed without the waiting-list dispatch (for the dispatch's own failure path)
+    private boolean releaseClaim(BedRegistry.BedLocation location, String patientID) {
+        if (!location.release(patientID)) {
+            return false;
+        }
+        freeBedIndex.bedFreed(location);
+        return true;
+    }
+
+    /**
+     * Admit the highest priority waiting patient who can use this freshly freed bed
+     */
+    private void dispatchWaitingPatient(BedRegistry.BedLocation location, long releasedAt) {
+        // The queues are keyed by needs mask, so whoever takeFor hands back is suitable for this bed;
+        // it keeps going through every queue the bed covers before giving up
+        WaitingList.WaitingPatient next = waitingList.takeFor(location.getCapabilities());
+        while (next != null && allPatients.containsKey(next.getDetails().getPatientID())) {
+            // Admitted some other way after they were put on the list
+            next = waitingList.takeFor(location.getCapabilities());
+        }
+        if (next == null) {
+            return;
+        }
+        if (!claimBed(location, next.getDetails().getPatientID(), next.getNeeds())) {
+            // Someone else got the bed first - keep the patient's place in the queue
+            waitingList.putBack(next);
+            return;
+        }
+        PatientDetails patientInfo = next.getDetails();
+        Patient newPatient = createPatientRecord(patientInfo);
+        try {
+            putPatientInBed(newPatient, location.getBed());
+
+            Duration dispatchLatency = Duration.ofNanos(System.nanoTime() - releasedAt);
+            activityLogger.logPatientAction("PATIENT_ADMITTED_FROM_WAITING_LIST", "SYSTEM",
+                    "Patient " + newPatient.getFullName() + " admitted to bed " + location.getBed().getBedID() +
+                            " after waiting since " + next.getWaitingSince());
+            performanceMonitor.recordWaitingListDispatch(dispatchLatency);
+            performanceMonitor.recordBedOccupancy(calculateCurrentOccupancyRate());
+        } catch (Exception e) {
+            // Don't put them back or dispatch again: the same record would fail the same way and
+            // keep the worker busy. They come off the list and staff are told to admit them by hand.
+            if (!location.getBed().isOccupied()) {
+                releaseClaim(location, patientInfo.getPatientID());
             }
+            activityLogger.logPatientAction("WAITING_LIST_ADMISSION_FAILED", "SYSTEM",
+                    "Patient " + patientInfo.getFullName() + " removed from the waiting list, admission failed: "
+                            + e.getMessage());
+            System.err.println("Waiting list admission failed for " + patientInfo.getPatientID() + ": " + e.getMessage());
         }
-        return null;
+    }
+
+    private String wardOf(PatientBed bed) {
+        return bedRegistry.locateBed(bed.getBedID()).getWardID();
     }
 
     private int calculateTotalBeds() {
-        return myWards.stream()
-                .mapToInt(HospitalWard::getTotalBedCount)
-                .sum();
+        return occupancyCounters.getTotalBeds();
     }
 
     private double calculateCurrentOccupancyRate() {
-        int totalBeds = calculateTotalBeds();
-        int occupiedBeds = allPatients.size();
-        return totalBeds > 0 ? (occupiedBeds * 100.0) / totalBeds : 0.0;
+        // Counted from real bed state (kept up to date on every assign/remove), not allPatients.size()
+        return occupancyCounters.getOccupancyRate();
     }
 
     private void performBackgroundComplianceCheck() {
-        try {
-            checkCompliance();
-            performanceMonitor.recordComplianceCheck(true);
-        } catch (ComplianceViolationException e) {
-            performanceMonitor.recordComplianceCheck(false);
-            activityLogger.logComplianceIssue("BACKGROUND_CHECK", e.getMessage());
+        ComplianceReport report = getComplianceReport();
+        performanceMonitor.recordComplianceCheck(report.isCompliant());
+        if (!report.isCompliant()) {
+            activityLogger.logComplianceIssue("BACKGROUND_CHECK", report.getSummary());
         }
     }
 
@@ -685,11 +1656,128 @@ public class HospitalSystem implements Serializable {
 
     private void checkShiftComplianceAfterAssignment() {
         // Check if all required shifts are now covered
-        if (!scheduleManager.hasUncoveredShifts()) {
+        if (!shiftRoster.hasUncoveredShifts()) {
             activityLogger.logSystemEvent("FULL_COVERAGE_ACHIEVED", "All shifts now have coverage");
         }
     }
 
+    /**
+     * Try out roster changes without touching the real roster
+     * Every scenario runs on its own cheap fork of the roster, all of them in parallel
+     */
+    public List<ScenarioOutcome> evaluateScenarios(List<RosterScenario> scenarios) {
+        return scenarios.parallelStream()
+                .map(this::evaluateScenario)
+                .collect(Collectors.toList());
+    }
+
+    private ScenarioOutcome evaluateScenario(RosterScenario scenario) {
+        // A fork reads what it hasn't changed from the live roster, so re-run if that moved meanwhile
+        ScenarioOutcome outcome = null;
+        for (int attempt = 0; attempt < MAX_SCENARIO_ATTEMPTS; attempt++) {
+            long rosterVersion = shiftRoster.getChangeCount();
+            outcome = evaluateScenarioOnce(scenario);
+            if (shiftRoster.getChangeCount() == rosterVersion) {
+                return outcome;
+            }
+        }
+        return outcome.markedStale();
+    }
+
+    private ScenarioOutcome evaluateScenarioOnce(RosterScenario scenario) {
+        RosterFork fork = shiftRoster.fork();
+        int maxHours = mySettings.getMaxHoursPerNursePerDay();
+        int applied = 0;
+        List<String> rejected = new ArrayList<>();
+        List<RosterEntry> changes = scenario.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            RosterEntry change = changes.get(i);
+            try {
+                ShiftType shift = shiftTemplates.fromName(change.getShiftType());
+                if (!allNurses.containsKey(change.getNurseID())) {
+                    rejected.add(change + ": unknown nurse");
+                } else if (scenario.isRemoval(i) ? fork.unassign(change.getNurseID(), change.getDate(), shift)
+                        : fork.assign(change.getNurseID(), change.getDate(), shift, maxHours)) {
+                    applied++;
+                } else {
+                    rejected.add(change + (scenario.isRemoval(i) ? ": not on that shift"
+                            : ": overlaps another shift or exceeds the daily hour limit"));
+                }
+            } catch (IllegalArgumentException badChange) {
+                rejected.add(change + ": " + badChange.getMessage());
+            }
+        }
+        return new ScenarioOutcome(scenario.getName(), applied, rejected, fork.findUncoveredShifts(), false);
+    }
+
+    private CheckResult rosterRejected(List<String> problems) {
+        String shown = String.join("; ", problems.subList(0, Math.min(problems.size(), 5)));
+        System.out.println("❌ Roster rejected, nothing was assigned: " + shown);
+        return new CheckResult(false, "Roster rejected (" + problems.size() + " problems): " + shown);
+    }
+
+    /**
+     * Rebuild the roster from the nurses' saved shift keys (only done on restore)
+     * Keys are either dated ("2026-10-19_morning") or old weekly ones ("monday_morning")
+     */
+    private void rebuildShiftRoster() {
+        this.shiftRoster = new RollingRoster(shiftTemplates, LocalDate.now(), ROSTER_WEEKS_AHEAD, ROSTER_DAYS_KEPT);
+        for (Nurse nurse : allNurses.values()) {
+            for (String shiftKey : nurse.getShiftAssignments()) {
+                loadSavedShift(shiftRoster, nurse.getStaffID(), shiftKey, nurse.getFullName());
+            }
+        }
+    }
+
+    /**
+     * Rebuild the on-call roster (and the index reading it) from the saved doctor -> shift keys
+     * Snapshots from before on-call was saved have none, which just means nobody is on call
+     */
+    private void rebuildOnCallRoster(Map<String, List<String>> savedOnCall) {
+        this.onCallRoster = new RollingRoster(shiftTemplates, LocalDate.now(), ROSTER_WEEKS_AHEAD, ROSTER_DAYS_KEPT);
+        this.onCallIndex = new OnCallIndex(onCallRoster, allDoctors);
+        if (savedOnCall == null) {
+            return;
+        }
+        savedOnCall.forEach((doctorID, shiftKeys) -> {
+            if (allDoctors.containsKey(doctorID)) {
+                for (String shiftKey : shiftKeys) {
+                    loadSavedShift(onCallRoster, doctorID, shiftKey, doctorID);
+                }
+            }
+        });
+    }
+
+    // Snapshots from before home wards were saved have none - those wards just aren't tracked
+    private void restoreHomeWards(Map<String, String> savedHomeWards) {
+        if (savedHomeWards == null) {
+            return;
+        }
+        savedHomeWards.forEach((nurseID, wardID) -> {
+            if (allNurses.containsKey(nurseID) && occupancyCounters.getWardIDs().contains(wardID)) {
+                staffingRatios.setHomeWard(nurseID, wardID);
+            }
+        });
+    }
+
+    private static void loadSavedShift(RollingRoster roster, String staffID, String shiftKey, String who) {
+        int split = shiftKey.indexOf('_');
+        try {
+            String datePart = shiftKey.substring(0, split);
+            LocalDate date = Character.isDigit(datePart.charAt(0)) ? LocalDate.parse(datePart)
+                    : roster.nextDateFor(DayOfWeek.valueOf(datePart.toUpperCase(Locale.ROOT)));
+            ShiftType shift = roster.getTemplates().fromName(shiftKey.substring(split + 1));
+            // Saved shifts were within the limits when they were booked, so only overlaps can stop them
+            if (!date.isBefore(roster.getToday()) && !date.isAfter(roster.lastRosterDay())
+                    && !roster.assign(staffID, date, shift, Integer.MAX_VALUE)) {
+                System.out.println("⚠️ Dropping saved shift " + shiftKey + " for " + who
+                        + " - it overlaps another saved shift");
+            }
+        } catch (RuntimeException badKey) {
+            System.out.println("⚠️ Skipping unknown saved shift " + shiftKey + " for " + who);
+        }
+    }
+
     private HospitalDataSnapshot createDataSnapshot() {
         return new HospitalDataSnapshot.Builder()
                 .setDoctors(new HashMap<>(allDoctors))
@@ -698,6 +1786,9 @@ public class HospitalSystem implements Serializable {
                 .setPatients(new HashMap<>(allPatients))
                 .setWards(new ArrayList<>(myWards))
                 .setSchedule(scheduleManager.getCurrentSchedule())
+                .setOnCallAssignments(onCallRoster.assignmentsByStaff())
+                .setNurseHomeWards(staffingRatios.getHomeWards())
+                .setOccupantNeeds(bedRegistry.occupantNeedsByBed())
                 .setTimestamp(LocalDateTime.now())
                 .build();
     }
@@ -712,9 +1803,19 @@ public class HospitalSystem implements Serializable {
         for (int i = 0; i < myWards.size() && i < snapshot.getWards().size(); i++) {
             myWards.get(i).restoreState(snapshot.getWards().get(i));
         }
+        // Restored wards may hold new bed objects, so rebuild the bed index
+        bedRegistry.reindex(myWards, snapshot.getOccupantNeeds());
+        occupancyCounters.recount(bedRegistry);
+        freeBedIndex.rebuild(bedRegistry);
+        syncForecasterWards();
 
         // Restore schedule
         scheduleManager.restoreSchedule(snapshot.getSchedule());
+        rebuildShiftRoster();
+        rebuildOnCallRoster(snapshot.getOnCallAssignments());
+        restoreHomeWards(snapshot.getNurseHomeWards());
+        refreshWhoIsOnShift();
+        complianceEngine.evaluateAll();
 
         System.out.println("📊 Restored: " + allDoctors.size() + " doctors, " +
                 allNurses.size() + " nurses, " + allPatients.size() + " patients");
@@ -0,0 +1,167 @@
+package healthcare;
+
+import healthcare.model.*;
+import healthcare.utils.*;
+import java.time.Duration;
+import java.util.*;
+
+//Bed finder that answers from the free-bed index first
+//The index groups beds by care level and room size; the rest (gender, mobility, diet) is
+//checked on each candidate with the BedSuitability masks, which is the whole check.
+//Only if no free bed suits does it fall back to the full SmartBedFinder scan, which is what
+//produces the "no bed found" suggestion.
+//It also has a solver mode that plans beds for a whole group of patients at once
+class IndexedBedFinder implements BedFinder {
+    private final FreeBedIndex freeBeds;
+    private final BedRegistry bedRegistry;
+    private final SmartBedFinder fullScanFinder;
+
+    IndexedBedFinder(FreeBedIndex freeBeds, BedRegistry bedRegistry, SmartBedFinder fullScanFinder) {
+        this.freeBeds = freeBeds;
+        this.bedRegistry = bedRegistry;
+        this.fullScanFinder = fullScanFinder;
+    }
+
+    @Override
+    public BestBedSuggestion findBestBed(PatientDetails patientInfo) {
+        int neededCareLevel = wardCareLevelFor(patientInfo);
+        BedRegistry.BedLocation location = findSuitableFreeBed(patientInfo);
+        if (location == null) {
+            return fullScanFinder.findBestBed(patientInfo);
+        }
+
+        boolean exactLevel = location.getCareLevel() == neededCareLevel;
+        String why = (patientInfo.needsIsolation() ? "Single room for isolation" : "Shared room")
+                + " in " + location.getWardID()
+                + (exactLevel ? " matching the patient's care level" : " (higher care level than needed)");
+        return new BestBedSuggestion(location.getBed(), why, exactLevel ? 95 : 75);
+    }
+
+    /**
+     * The best free bed from the index whose capabilities cover the patient's needs, or null
+     */
+    BedRegistry.BedLocation findSuitableFreeBed(PatientDetails patientInfo) {
+        long needs = needsOf(patientInfo);
+        String bedID = freeBeds.findFreeBed(patientInfo.needsIsolation(), wardCareLevelFor(patientInfo), candidate -> {
+            BedRegistry.BedLocation location = bedRegistry.locateBed(candidate);
+            return location != null && BedSuitability.suits(needs, location.getCapabilities());
+        });
+        return bedID == null ? null : bedRegistry.locateBed(bedID);
+    }
+
+    /**
+     * Map the patient's care level onto ward care levels (1 = general, 2 = intensive, ...)
+     */
+    int wardCareLevelFor(PatientDetails patientInfo) {
+        int level = patientInfo.getCareLevel().ordinal() + 1;
+        return Math.min(level, Math.max(freeBeds.getHighestCareLevel(), 1));
+    }
+
+    /**
+     * The patient's needs as a BedSuitability mask
+     */
+    long needsOf(PatientDetails patientInfo) {
+        return BedSuitability.needsOf(patientInfo.needsIsolation(), wardCareLevelFor(patientInfo),
+                patientInfo.getGender(), patientInfo.getMobilityLevel(), patientInfo.getDietNeeds());
+    }
+
+    /**
+     * Solver mode: plan beds for all pending patients at once (optionally letting current
+     * patients move too) to get the best total fit, stopping when the time budget runs out
+     */
+    BedAssignmentPlan planAssignments(List<PatientDetails> pending, List<Patient> movable, Duration timeBudget) {
+        long started = System.nanoTime();
+
+        // Beds in play: every free bed, plus the beds of patients we're allowed to move
+        Set<String> movableIDs = new HashSet<>();
+        for (Patient patient : movable) {
+            movableIDs.add(patient.getPatientID());
+        }
+        List<BedRegistry.BedLocation> beds = new ArrayList<>();
+        for (BedRegistry.BedLocation location : bedRegistry.allBeds()) {
+            PatientBed bed = location.getBed();
+            if (!location.isClaimed()
+                    || (bed.isOccupied() && movableIDs.contains(bed.getCurrentPatient().getPatientID()))) {
+                beds.add(location);
+            }
+        }
+
+        // Needs masks are worked out once, so every fit the search asks for is a couple of bit operations
+        long[] pendingNeeds = new long[pending.size()];
+        for (int p = 0; p < pending.size(); p++) {
+            pendingNeeds[p] = needsOf(pending.get(p));
+        }
+        long[] movableNeeds = new long[movable.size()];
+        for (int m = 0; m < movable.size(); m++) {
+            PatientBed currentBed = movable.get(m).getCurrentBed();
+            BedRegistry.BedLocation currentSpot = currentBed != null ? bedRegistry.locateBed(currentBed.getBedID()) : null;
+            // Not in an indexed bed: nothing is known about them, so no bed is planned for them
+            movableNeeds[m] = currentSpot != null ? currentSpot.getOccupantNeeds() : -1L;
+        }
+
+        BedAssignmentSolver.FitScore fit = (p, b) -> {
+            BedRegistry.BedLocation location = beds.get(b);
+            if (p < pending.size()) {
+                return newAdmissionFit(pendingNeeds[p], location);
+            }
+            int m = p - pending.size();
+            if (!BedSuitability.suits(movableNeeds[m], location.getCapabilities())) {
+                return BedAssignmentSolver.NOT_SUITABLE;
+            }
+            // Staying put is worth a lot - we don't want to move people for a tiny gain
+            Patient patient = movable.get(m);
+            return location.getBed().getCurrentPatient() == patient ? 90 : 60;
+        };
+
+        // Patients already in a bed start the search in that bed
+        int[] startingBeds = new int[pending.size() + movable.size()];
+        Arrays.fill(startingBeds, -1);
+        Map<String, Integer> bedIndex = new HashMap<>();
+        for (int b = 0; b < beds.size(); b++) {
+            bedIndex.put(beds.get(b).getBed().getBedID(), b);
+        }
+        for (int m = 0; m < movable.size(); m++) {
+            PatientBed currentBed = movable.get(m).getCurrentBed();
+            if (currentBed != null) {
+                startingBeds[pending.size() + m] = bedIndex.getOrDefault(currentBed.getBedID(), -1);
+            }
+        }
+
+        BedAssignmentSolver solver = new BedAssignmentSolver(pending.size() + movable.size(), beds.size(), fit, started);
+        BedAssignmentSolver.Solution solution = solver.solve(started + timeBudget.toNanos(), startingBeds);
+
+        List<BedAssignmentPlan.Placement> placements = new ArrayList<>();
+        List<String> unplaced = new ArrayList<>();
+        int[] bedForPatient = solution.getBedForPatient();
+        for (int p = 0; p < bedForPatient.length; p++) {
+            boolean isPending = p < pending.size();
+            String patientID = isPending ? pending.get(p).getPatientID()
+                    : movable.get(p - pending.size()).getPatientID();
+            if (bedForPatient[p] == -1) {
+                unplaced.add(patientID);
+                continue;
+            }
+            PatientBed currentBed = isPending ? null : movable.get(p - pending.size()).getCurrentBed();
+            placements.add(new BedAssignmentPlan.Placement(patientID,
+                    beds.get(bedForPatient[p]).getBed().getBedID(),
+                    currentBed != null ? currentBed.getBedID() : null));
+        }
+        long solveMillis = (System.nanoTime() - started) / 1_000_000;
+        return new BedAssignmentPlan(placements, unplaced, solution.getTotalFit(), solveMillis,
+                solution.getImprovementRounds());
+    }
+
+    // Same rules as the free-bed index, as a score: exact care level and the right room type score highest
+    private static int newAdmissionFit(long needs, BedRegistry.BedLocation location) {
+        if (!BedSuitability.suits(needs, location.getCapabilities())) {
+            return BedAssignmentSolver.NOT_SUITABLE;
+        }
+        boolean needsIsolation = BedSuitability.needsIsolation(needs);
+        int neededLevel = BedSuitability.careLevelOf(needs);
+        int score = 100 - 20 * (location.getCareLevel() - neededLevel);
+        if (!needsIsolation && location.canIsolate()) {
+            score -= 15; // single rooms are better kept for isolation
+        }
+        return Math.max(score, 1);
+    }
+}
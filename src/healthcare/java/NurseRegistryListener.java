@@ -0,0 +1,12 @@
+package healthcare;
+
+import healthcare.model.*;
+
+//Told about each nurse joining or leaving, one at a time,
+//so nobody has to be handed the whole nurse list again after every change
+interface NurseRegistryListener {
+
+    void nurseAdded(Nurse nurse);
+
+    void nurseRemoved(Nurse nurse);
+}
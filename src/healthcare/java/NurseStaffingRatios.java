@@ -0,0 +1,193 @@
+package healthcare;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+//Patients per on-shift nurse for each ward (max from HospitalSettings, 8 by default)
+//Occupied beds come straight from OccupancyCounters, which are already kept up to date on
+//every admission, discharge and move. Nurses on shift per ward (by their home ward) only
+//change at shift boundaries or when the roster changes, so those counts are worked out
+//then. Every check below is a couple of map lookups, no walking wards or rosters.
+//A ward nobody has been given as their home ward isn't tracked: it has no ratio and is
+//never reported as breached (otherwise every ward would be "over" until wards are assigned).
+class NurseStaffingRatios {
+    private final OccupancyCounters occupancy;
+    private final int maxPatientsPerNurse;
+    private final ConcurrentHashMap<String, String> homeWardByNurse = new ConcurrentHashMap<>();
+    // How many nurses have each ward as home ward, on shift or not
+    private final ConcurrentHashMap<String, Integer> homeNursesByWard = new ConcurrentHashMap<>();
+    // Who is working right now, and how many of them per home ward; only changed under the lock
+    private final Set<String> nursesOnShift = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Integer> nursesOnShiftByWard = new ConcurrentHashMap<>();
+    // Wards currently over the ratio, so a breach is only flagged once when it starts
+    // (a map so each ward's check-and-update can run inside compute)
+    private final ConcurrentHashMap<String, Boolean> breachedWards = new ConcurrentHashMap<>();
+
+    NurseStaffingRatios(OccupancyCounters occupancy, int maxPatientsPerNurse) {
+        this.occupancy = occupancy;
+        this.maxPatientsPerNurse = maxPatientsPerNurse;
+    }
+
+    /**
+     * Give a nurse a home ward; returns the ward they had before (null if none)
+     */
+    synchronized String setHomeWard(String nurseID, String wardID) {
+        String previous = homeWardByNurse.put(nurseID, wardID);
+        boolean onShift = nursesOnShift.contains(nurseID);
+        if (previous != null) {
+            homeNursesByWard.merge(previous, -1, NurseStaffingRatios::positiveOrRemove);
+            if (onShift) {
+                nursesOnShiftByWard.merge(previous, -1, NurseStaffingRatios::positiveOrRemove);
+            }
+        }
+        homeNursesByWard.merge(wardID, 1, Integer::sum);
+        if (onShift) {
+            nursesOnShiftByWard.merge(wardID, 1, Integer::sum);
+        }
+        return previous;
+    }
+
+    /**
+     * A nurse left; returns their home ward (null if they didn't have one)
+     */
+    synchronized String nurseLeft(String nurseID) {
+        boolean wasOnShift = nursesOnShift.remove(nurseID);
+        String wardID = homeWardByNurse.remove(nurseID);
+        if (wardID != null) {
+            homeNursesByWard.merge(wardID, -1, NurseStaffingRatios::positiveOrRemove);
+            if (wasOnShift) {
+                nursesOnShiftByWard.merge(wardID, -1, NurseStaffingRatios::positiveOrRemove);
+            }
+        }
+        return wardID;
+    }
+
+    String getHomeWard(String nurseID) {
+        return homeWardByNurse.get(nurseID);
+    }
+
+    /**
+     * Every nurse's home ward, for saving
+     */
+    Map<String, String> getHomeWards() {
+        return new HashMap<>(homeWardByNurse);
+    }
+
+    /**
+     * Recount nurses on shift per ward from everyone working right now (at shift boundaries)
+     */
+    synchronized void refreshOnShift(Set<String> workingNow) {
+        nursesOnShift.clear();
+        nursesOnShift.addAll(workingNow);
+        Map<String, Integer> byWard = countByHomeWard(workingNow);
+        nursesOnShiftByWard.keySet().retainAll(byWard.keySet());
+        nursesOnShiftByWard.putAll(byWard);
+    }
+
+    /**
+     * One nurse started or stopped working right now (their shift was just booked or cancelled)
+     * Returns the home ward whose count changed, or null if none did
+     */
+    synchronized String setOnShift(String nurseID, boolean onShift) {
+        boolean changed = onShift ? nursesOnShift.add(nurseID) : nursesOnShift.remove(nurseID);
+        String wardID = homeWardByNurse.get(nurseID);
+        if (!changed || wardID == null) {
+            return null;
+        }
+        if (onShift) {
+            nursesOnShiftByWard.merge(wardID, 1, Integer::sum);
+        } else {
+            nursesOnShiftByWard.merge(wardID, -1, NurseStaffingRatios::positiveOrRemove);
+        }
+        return wardID;
+    }
+
+    /**
+     * How many of these nurses belong to each ward (also used for rostered nurses at a future hour)
+     */
+    Map<String, Integer> countByHomeWard(Set<String> nurseIDs) {
+        Map<String, Integer> byWard = new HashMap<>();
+        for (String nurseID : nurseIDs) {
+            String wardID = homeWardByNurse.get(nurseID);
+            if (wardID != null) {
+                byWard.merge(wardID, 1, Integer::sum);
+            }
+        }
+        return byWard;
+    }
+
+    /**
+     * Does this ward have any home-ward nurses at all? If not there's no ratio to check
+     */
+    boolean isTracked(String wardID) {
+        return homeNursesByWard.containsKey(wardID);
+    }
+
+    int getNursesOnShift(String wardID) {
+        return nursesOnShiftByWard.getOrDefault(wardID, 0);
+    }
+
+    /**
+     * Patients per nurse on shift; NaN if the ward isn't tracked, infinite if there are
+     * patients and none of its nurses are on shift
+     */
+    double getPatientsPerNurse(String wardID) {
+        if (!isTracked(wardID)) {
+            return Double.NaN;
+        }
+        long patients = occupancy.getOccupiedBeds(wardID);
+        int nurses = getNursesOnShift(wardID);
+        if (nurses == 0) {
+            return patients == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return (double) patients / nurses;
+    }
+
+    /**
+     * Would one more patient on this ward still be within the ratio? (always yes if untracked)
+     */
+    boolean canAdmit(String wardID) {
+        return !isTracked(wardID)
+                || occupancy.getOccupiedBeds(wardID) + 1 <= (long) getNursesOnShift(wardID) * maxPatientsPerNurse;
+    }
+
+    /**
+     * Re-check a ward after its patients or nurses changed
+     * Returns true only when the ward has just gone over the ratio
+     * The counts are read inside the ward's compute, so checks for one ward run one at a time and
+     * the last one always sees the latest counts (a racing admission can't re-flag a ward that a
+     * discharge has just cleared)
+     */
+    boolean checkForNewBreach(String wardID) {
+        boolean[] started = new boolean[1];
+        breachedWards.compute(wardID, (id, wasBreached) -> {
+            boolean over = isTracked(id)
+                    && occupancy.getOccupiedBeds(id) > (long) getNursesOnShift(id) * maxPatientsPerNurse;
+            started[0] = over && wasBreached == null;
+            return over ? Boolean.TRUE : null;
+        });
+        return started[0];
+    }
+
+    boolean isBreached(String wardID) {
+        return breachedWards.containsKey(wardID);
+    }
+
+    int getBreachedWardCount() {
+        return breachedWards.size();
+    }
+
+    int getTrackedWardCount() {
+        return homeNursesByWard.size();
+    }
+
+    int getMaxPatientsPerNurse() {
+        return maxPatientsPerNurse;
+    }
+
+    // For merge(): drop the entry when a count gets back to zero, so "present" means "at least one"
+    private static Integer positiveOrRemove(Integer current, Integer change) {
+        int total = current + change;
+        return total > 0 ? total : null;
+    }
+}
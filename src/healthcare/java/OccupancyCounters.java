@@ -0,0 +1,101 @@
+package healthcare;
+
+import healthcare.model.*;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+//Running counts of occupied/total beds per ward and for the whole hospital
+//Updated every time a bed is taken or freed so occupancy reads never walk the wards
+//LongAdder so lots of admissions at once don't all fight over one counter
+class OccupancyCounters {
+    private static final class WardCount {
+        private final LongAdder occupied = new LongAdder();
+        private int totalBeds;
+    }
+
+    // Everything one recount produces; swapped in whole so updates never see a half-built map
+    private static final class Counts {
+        private final Map<String, WardCount> wardCounts;
+        private final LongAdder occupiedBeds = new LongAdder();
+        private final int totalBeds;
+
+        private Counts(Map<String, WardCount> wardCounts, int totalBeds) {
+            this.wardCounts = wardCounts;
+            this.totalBeds = totalBeds;
+        }
+    }
+
+    private volatile Counts counts = new Counts(Collections.emptyMap(), 0);
+
+    /**
+     * Rebuild all counters from the real bed state (after build or snapshot restore)
+     * Built on the side and published with one volatile write, like BedRegistry.reindex
+     */
+    synchronized void recount(BedRegistry registry) {
+        Map<String, WardCount> freshWards = new HashMap<>();
+        long occupied = 0;
+        int beds = 0;
+        for (BedRegistry.BedLocation location : registry.allBeds()) {
+            WardCount ward = freshWards.computeIfAbsent(location.getWardID(), id -> new WardCount());
+            ward.totalBeds++;
+            beds++;
+            if (location.getBed().isOccupied()) {
+                ward.occupied.increment();
+                occupied++;
+            }
+        }
+        Counts fresh = new Counts(Collections.unmodifiableMap(freshWards), beds);
+        fresh.occupiedBeds.add(occupied);
+        this.counts = fresh;
+    }
+
+    void bedTaken(String wardID) {
+        Counts current = counts;
+        WardCount ward = current.wardCounts.get(wardID);
+        if (ward != null) {
+            ward.occupied.increment();
+            current.occupiedBeds.increment();
+        }
+    }
+
+    void bedFreed(String wardID) {
+        Counts current = counts;
+        WardCount ward = current.wardCounts.get(wardID);
+        if (ward != null) {
+            ward.occupied.decrement();
+            current.occupiedBeds.decrement();
+        }
+    }
+
+    int getTotalBeds() {
+        return counts.totalBeds;
+    }
+
+    long getOccupiedBeds() {
+        return counts.occupiedBeds.sum();
+    }
+
+    double getOccupancyRate() {
+        Counts current = counts;
+        return current.totalBeds > 0 ? (current.occupiedBeds.sum() * 100.0) / current.totalBeds : 0.0;
+    }
+
+    long getOccupiedBeds(String wardID) {
+        WardCount ward = counts.wardCounts.get(wardID);
+        return ward != null ? ward.occupied.sum() : 0;
+    }
+
+    int getTotalBeds(String wardID) {
+        WardCount ward = counts.wardCounts.get(wardID);
+        return ward != null ? ward.totalBeds : 0;
+    }
+
+    Set<String> getWardIDs() {
+        return counts.wardCounts.keySet();
+    }
+
+    double getWardOccupancyRate(String wardID) {
+        WardCount ward = counts.wardCounts.get(wardID);
+        return ward != null && ward.totalBeds > 0 ? (ward.occupied.sum() * 100.0) / ward.totalBeds : 0.0;
+    }
+}
@@ -0,0 +1,66 @@
+package healthcare;
+
+import healthcare.model.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+//"Which cardiologist is on call right now?" for prescription routing.
+//Who's on call only changes at shift boundaries or when the on-call roster changes, so the
+//answer is worked out then and kept as a specialty -> doctors map. A lookup is one map get.
+class OnCallIndex {
+    private final RollingRoster onCallRoster;
+    private final Map<String, Doctor> doctors;
+    private volatile Map<String, List<String>> onCallBySpecialty = Collections.emptyMap();
+    private volatile LocalDateTime validUntil = LocalDateTime.MIN;
+
+    OnCallIndex(RollingRoster onCallRoster, Map<String, Doctor> doctors) {
+        this.onCallRoster = onCallRoster;
+        this.doctors = doctors;
+    }
+
+    /**
+     * Work out who is on call at this moment and keep it until the next shift boundary
+     */
+    synchronized void refresh(LocalDateTime now) {
+        Map<String, List<String>> bySpecialty = new HashMap<>();
+        for (String doctorID : onCallRoster.whoIsOnShiftAt(now)) {
+            Doctor doctor = doctors.get(doctorID);
+            if (doctor != null) {
+                bySpecialty.computeIfAbsent(specialtyKey(doctor.getMedicalSpecialty()), key -> new ArrayList<>())
+                        .add(doctorID);
+            }
+        }
+        this.onCallBySpecialty = bySpecialty;
+        this.validUntil = onCallRoster.getTemplates().nextBoundaryAfter(now);
+    }
+
+    /**
+     * A doctor of this specialty on call now, or null if there isn't one
+     */
+    String doctorOnCall(String specialty) {
+        List<String> onCall = onCallNow().get(specialtyKey(specialty));
+        return onCall == null || onCall.isEmpty() ? null : onCall.get(0);
+    }
+
+    List<String> doctorsOnCall(String specialty) {
+        List<String> onCall = onCallNow().get(specialtyKey(specialty));
+        return onCall == null ? Collections.emptyList() : Collections.unmodifiableList(onCall);
+    }
+
+    LocalDateTime getValidUntil() {
+        return validUntil;
+    }
+
+    // The timer normally refreshes at each boundary; this only catches it running late
+    private Map<String, List<String>> onCallNow() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!now.isBefore(validUntil)) {
+            refresh(now);
+        }
+        return onCallBySpecialty;
+    }
+
+    private static String specialtyKey(String specialty) {
+        return specialty == null ? "" : specialty.trim().toLowerCase(Locale.ROOT);
+    }
+}
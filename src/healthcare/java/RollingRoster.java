@@ -0,0 +1,375 @@
+package healthcare;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Dated roster that rolls forward: slots exist for real dates from a few days back to
+//N weeks ahead. Slots are only made when something asks for them, and advanceTo()
+//archives the old ones, so memory stays flat as the calendar moves on.
+//Slots are kept sorted by start time (two templates can start at the same minute, so the
+//key is the start minute with the template index packed underneath), so "who is on shift
+//at time T" is a log(n) lookup plus a look at the few slots that started just before T.
+//Coverage of the coming week is kept up to date on every assign/unassign
+//(uncoveredSlots), so "are any shifts uncovered?" never has to scan the roster.
+class RollingRoster {
+    // The days from today that must have someone on every shift (same as the old weekly template)
+    static final int COVERAGE_DAYS = 7;
+    private static final int TEMPLATE_BITS = 8;
+    private static final long TEMPLATE_MASK = (1L << TEMPLATE_BITS) - 1;
+
+    static final class RosterSlot {
+        private final LocalDate date;
+        private final ShiftType shift;
+        private final LocalDateTime startsAt;
+        private final LocalDateTime endsAt;
+        private final String key;
+        private final Set<String> staffOnShift = ConcurrentHashMap.newKeySet();
+
+        RosterSlot(LocalDate date, ShiftType shift) {
+            this.date = date;
+            this.shift = shift;
+            this.startsAt = date.atTime(shift.getStartsAt());
+            this.endsAt = startsAt.plusMinutes(shift.getLengthInMinutes());
+            this.key = date + "_" + shift.name().toLowerCase(Locale.ROOT);
+        }
+
+        LocalDate getDate() {
+            return date;
+        }
+
+        ShiftType getShift() {
+            return shift;
+        }
+
+        LocalDateTime getStartsAt() {
+            return startsAt;
+        }
+
+        LocalDateTime getEndsAt() {
+            return endsAt;
+        }
+
+        // e.g. "2026-10-19_morning"
+        String getKey() {
+            return key;
+        }
+
+        Set<String> getStaffOnShift() {
+            return Collections.unmodifiableSet(staffOnShift);
+        }
+
+        boolean covers(LocalDateTime instant) {
+            return !instant.isBefore(startsAt) && instant.isBefore(endsAt);
+        }
+    }
+
+    private final ShiftTemplates templates;
+    private final int weeksAhead;
+    private final int retentionDays;
+    private final ShiftCalendar calendar;
+    private final ConcurrentSkipListMap<Long, RosterSlot> slotsByStart = new ConcurrentSkipListMap<>();
+    private volatile LocalDate today;
+    private final AtomicLong archivedSlots = new AtomicLong();
+    private final AtomicLong archivedAssignments = new AtomicLong();
+    // Keys of slots in the coverage window with nobody on them
+    private final ConcurrentSkipListSet<Long> uncoveredSlots = new ConcurrentSkipListSet<>();
+    // Bumped after every change, so a what-if run can tell the live roster moved under it
+    private final AtomicLong changeCount = new AtomicLong();
+
+    RollingRoster(ShiftTemplates templates, LocalDate today, int weeksAhead, int retentionDays) {
+        this.templates = templates;
+        this.today = today;
+        this.weeksAhead = weeksAhead;
+        this.retentionDays = retentionDays;
+        this.calendar = new ShiftCalendar(today.minusDays(retentionDays));
+        trackCoverageFrom(today);
+    }
+
+    /**
+     * The slot for a shift on a date, made on first use
+     */
+    RosterSlot slotFor(LocalDate date, ShiftType shift) {
+        checkInRoster(date);
+        return slotsByStart.computeIfAbsent(slotKey(date, shift), key -> new RosterSlot(date, shift));
+    }
+
+    /**
+     * Put a staff member on a shift if it doesn't overlap their other shifts or break the daily limit
+     */
+    boolean assign(String staffID, LocalDate date, ShiftType shift, int maxHoursPerDay) {
+        RosterSlot slot = slotFor(date, shift);
+        if (!calendar.tryAssign(staffID, date, shift, maxHoursPerDay)) {
+            return false;
+        }
+        // Staff set and coverage change together per slot, so a racing unassign can't leave them out of step
+        synchronized (slot) {
+            if (slot.staffOnShift.add(staffID) && slot.staffOnShift.size() == 1) {
+                uncoveredSlots.remove(slotKey(date, shift));
+            }
+        }
+        changeCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Take a staff member off a shift; false if they weren't on it
+     */
+    boolean unassign(String staffID, LocalDate date, ShiftType shift) {
+        RosterSlot slot = slotsByStart.get(slotKey(date, shift));
+        if (slot == null) {
+            return false;
+        }
+        boolean removed;
+        synchronized (slot) {
+            removed = slot.staffOnShift.remove(staffID);
+            if (removed && slot.staffOnShift.isEmpty() && inCoverageWindow(slot)) {
+                uncoveredSlots.add(slotKey(date, shift));
+            }
+        }
+        if (removed) {
+            calendar.unassign(staffID, date, shift);
+            changeCount.incrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * Take someone off every live slot (they've left), updating coverage as we go
+     */
+    void removeStaff(String staffID) {
+        for (RosterSlot slot : slotsByStart.values()) {
+            synchronized (slot) {
+                if (slot.staffOnShift.remove(staffID) && slot.staffOnShift.isEmpty() && inCoverageWindow(slot)) {
+                    uncoveredSlots.add(slotKey(slot.date, slot.shift));
+                }
+            }
+        }
+        calendar.forget(staffID);
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Everyone's shifts from today on as slot keys ("2026-10-19_morning"), for saving
+     */
+    Map<String, List<String>> assignmentsByStaff() {
+        Map<String, List<String>> byStaff = new HashMap<>();
+        for (RosterSlot slot : slotsByStart.tailMap(dayKey(today)).values()) {
+            for (String staffID : slot.getStaffOnShift()) {
+                byStaff.computeIfAbsent(staffID, id -> new ArrayList<>()).add(slot.getKey());
+            }
+        }
+        return byStaff;
+    }
+
+    /**
+     * Any shift in the coming week with nobody on it? O(1), the set is kept up to date
+     */
+    boolean hasUncoveredShifts() {
+        return !uncoveredSlots.isEmpty();
+    }
+
+    int getUncoveredShiftCount() {
+        return uncoveredSlots.size();
+    }
+
+    // Every shift in the coming week, covered or not
+    int getCoverageSlotCount() {
+        return COVERAGE_DAYS * templates.values().size();
+    }
+
+    /**
+     * Keys of the uncovered shifts in the coming week, earliest first
+     */
+    List<String> findUncoveredShifts() {
+        List<String> uncovered = new ArrayList<>();
+        for (Long key : uncoveredSlots) {
+            RosterSlot slot = slotsByStart.get(key);
+            if (slot != null) {
+                uncovered.add(slot.key);
+            }
+        }
+        return uncovered;
+    }
+
+    // Counted against the date each shift starts on
+    int minutesOnDay(String staffID, LocalDate date) {
+        return calendar.minutesOnDay(staffID, date);
+    }
+
+    /**
+     * First day from today on where someone is rostered over the daily limit, or null
+     */
+    LocalDate firstDayOverLimit(String staffID, int maxHoursPerDay) {
+        return calendar.firstDayOverLimit(staffID, today, maxHoursPerDay);
+    }
+
+    /**
+     * Would this shift overlap anything the person is already booked for?
+     */
+    boolean isOverlapping(String staffID, LocalDate date, ShiftType shift) {
+        return calendar.overlaps(staffID, date, shift);
+    }
+
+    /**
+     * Everyone working at the given moment
+     * Only slots that started within the longest shift length before it can cover it
+     */
+    Set<String> whoIsOnShiftAt(LocalDateTime instant) {
+        Set<String> onShift = new HashSet<>();
+        long minute = instant.toLocalDate().toEpochDay() * ShiftType.MINUTES_PER_DAY
+                + instant.getHour() * 60 + instant.getMinute();
+        long earliest = (minute - templates.longestShift().toMinutes()) << TEMPLATE_BITS | TEMPLATE_MASK;
+        long latest = minute << TEMPLATE_BITS | TEMPLATE_MASK;
+        for (RosterSlot slot : slotsByStart.subMap(earliest, false, latest, true).values()) {
+            if (slot.covers(instant)) {
+                onShift.addAll(slot.staffOnShift);
+            }
+        }
+        return onShift;
+    }
+
+    /**
+     * All slots from one date to another (inclusive), made if they don't exist yet
+     */
+    List<RosterSlot> slotsBetween(LocalDate from, LocalDate toInclusive) {
+        List<RosterSlot> slots = new ArrayList<>();
+        LocalDate last = toInclusive.isAfter(lastRosterDay()) ? lastRosterDay() : toInclusive;
+        for (LocalDate date = from; !date.isAfter(last); date = date.plusDays(1)) {
+            for (ShiftType shift : templates.values()) {
+                slots.add(slotFor(date, shift));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * The next date (today or later) that falls on this day of the week
+     */
+    LocalDate nextDateFor(DayOfWeek day) {
+        int daysAhead = Math.floorMod(day.getValue() - today.getDayOfWeek().getValue(), 7);
+        return today.plusDays(daysAhead);
+    }
+
+    /**
+     * Move the roster on to a new day: slots older than the retention period are archived
+     * and their calendar days are freed for reuse. Returns how many slots were archived
+     */
+    int advanceTo(LocalDate newToday) {
+        if (!newToday.isAfter(today)) {
+            return 0;
+        }
+        this.today = newToday;
+        changeCount.incrementAndGet();
+        // Yesterday's gaps are history now; the new last day of the week joins the window
+        uncoveredSlots.headSet(dayKey(newToday)).clear();
+        trackCoverageFrom(newToday);
+        LocalDate keepFrom = newToday.minusDays(retentionDays);
+        int archived = 0;
+        NavigableMap<Long, RosterSlot> old = slotsByStart.headMap(dayKey(keepFrom), false);
+        for (RosterSlot slot : old.values()) {
+            archivedAssignments.addAndGet(slot.staffOnShift.size());
+            archived++;
+        }
+        old.clear();
+        archivedSlots.addAndGet(archived);
+        calendar.dropDaysBefore(keepFrom);
+        return archived;
+    }
+
+    // Make sure every slot in the coverage window exists and is counted if empty
+    private void trackCoverageFrom(LocalDate firstDay) {
+        for (int day = 0; day < COVERAGE_DAYS; day++) {
+            for (ShiftType shift : templates.values()) {
+                RosterSlot slot = slotFor(firstDay.plusDays(day), shift);
+                synchronized (slot) {
+                    if (slot.staffOnShift.isEmpty()) {
+                        uncoveredSlots.add(slotKey(slot.date, shift));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A what-if copy of this roster to try changes on (see RosterFork)
+     */
+    RosterFork fork() {
+        return new RosterFork(this, calendar.fork(), new TreeSet<>(uncoveredSlots));
+    }
+
+    // Who is on a slot right now, by slot key (empty if the slot hasn't been made)
+    Set<String> staffOn(long slotKey) {
+        RosterSlot slot = slotsByStart.get(slotKey);
+        return slot == null ? Collections.emptySet() : slot.getStaffOnShift();
+    }
+
+    void checkInRoster(LocalDate date) {
+        if (date.isBefore(today.minusDays(retentionDays)) || date.isAfter(lastRosterDay())) {
+            throw new IllegalArgumentException("Date " + date + " is outside the roster (up to " + lastRosterDay() + ")");
+        }
+    }
+
+    /**
+     * A new shift template was defined: its slots in the coming week need covering too
+     */
+    void shiftTemplatesChanged() {
+        trackCoverageFrom(today);
+        changeCount.incrementAndGet();
+    }
+
+    long getChangeCount() {
+        return changeCount.get();
+    }
+
+    // Start minute (since 1970-01-01) with the template index in the low bits
+    static long slotKey(LocalDate date, ShiftType shift) {
+        long startMinute = date.toEpochDay() * ShiftType.MINUTES_PER_DAY + shift.getStartMinute();
+        return startMinute << TEMPLATE_BITS | shift.getIndex();
+    }
+
+    private static long dayKey(LocalDate date) {
+        return date.toEpochDay() * ShiftType.MINUTES_PER_DAY << TEMPLATE_BITS;
+    }
+
+    // Back from a slot key to "2026-10-19_morning"
+    String slotName(long slotKey) {
+        long startMinute = slotKey >>> TEMPLATE_BITS;
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(startMinute, (long) ShiftType.MINUTES_PER_DAY));
+        return date + "_" + templates.byIndex((int) (slotKey & TEMPLATE_MASK)).name().toLowerCase(Locale.ROOT);
+    }
+
+    boolean inCoverageWindow(LocalDate date) {
+        return !date.isBefore(today) && date.isBefore(today.plusDays(COVERAGE_DAYS));
+    }
+
+    private boolean inCoverageWindow(RosterSlot slot) {
+        return inCoverageWindow(slot.date);
+    }
+
+    // The templates this roster's slots are made from
+    ShiftTemplates getTemplates() {
+        return templates;
+    }
+
+    LocalDate getToday() {
+        return today;
+    }
+
+    LocalDate lastRosterDay() {
+        return today.plusWeeks(weeksAhead);
+    }
+
+    int getLiveSlotCount() {
+        return slotsByStart.size();
+    }
+
+    long getArchivedSlotCount() {
+        return archivedSlots.get();
+    }
+
+    long getArchivedAssignmentCount() {
+        return archivedAssignments.get();
+    }
+}
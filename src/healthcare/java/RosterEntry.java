@@ -0,0 +1,33 @@
+package healthcare;
+
+import java.time.LocalDate;
+
+//One line of an imported roster: this nurse works this shift on this date
+public class RosterEntry {
+    private final String nurseID;
+    private final LocalDate date;
+    private final String shiftType;
+
+    public RosterEntry(String nurseID, LocalDate date, String shiftType) {
+        this.nurseID = nurseID;
+        this.date = date;
+        this.shiftType = shiftType;
+    }
+
+    public String getNurseID() {
+        return nurseID;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getShiftType() {
+        return shiftType;
+    }
+
+    @Override
+    public String toString() {
+        return nurseID + " on " + date + " " + shiftType;
+    }
+}
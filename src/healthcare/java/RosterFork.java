@@ -0,0 +1,96 @@
+package healthcare;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+//A what-if copy of the roster for trying changes before making them for real.
+//Making one is cheap: nothing is copied up front. The calendar only copies a nurse's shifts
+//the first time the fork changes them, and slots only copy their staff list the first time
+//the fork puts someone on or takes someone off. Forks can be forked again.
+//Anything the fork hasn't touched is read from the live roster, so it sees live changes
+//to those nurses and slots; what the fork changed is its own. The uncovered set is copied
+//when the fork is made, so if the live roster changes meanwhile the two can disagree -
+//compare RollingRoster.getChangeCount() before and after to know the answer still holds.
+//One fork is meant for one thread; run different scenarios on different forks.
+class RosterFork {
+    private final RollingRoster live;
+    private final RosterFork parent;
+    private final ShiftCalendar calendar;
+    private final ConcurrentHashMap<Long, Set<String>> staffBySlot = new ConcurrentHashMap<>();
+    // The coming week's uncovered slots (a couple of dozen at most, so this one is just copied)
+    private final NavigableSet<Long> uncoveredSlots;
+
+    RosterFork(RollingRoster live, ShiftCalendar calendar, NavigableSet<Long> uncoveredSlots) {
+        this(live, null, calendar, uncoveredSlots);
+    }
+
+    private RosterFork(RollingRoster live, RosterFork parent, ShiftCalendar calendar, NavigableSet<Long> uncoveredSlots) {
+        this.live = live;
+        this.parent = parent;
+        this.calendar = calendar;
+        this.uncoveredSlots = uncoveredSlots;
+    }
+
+    RosterFork fork() {
+        return new RosterFork(live, this, calendar.fork(), new TreeSet<>(uncoveredSlots));
+    }
+
+    /**
+     * Same rules as the real roster: no overlaps, and the daily hour limit
+     */
+    boolean assign(String staffID, LocalDate date, ShiftType shift, int maxHoursPerDay) {
+        live.checkInRoster(date);
+        if (!calendar.tryAssign(staffID, date, shift, maxHoursPerDay)) {
+            return false;
+        }
+        long key = RollingRoster.slotKey(date, shift);
+        Set<String> staff = writableStaffOn(key);
+        if (staff.add(staffID) && staff.size() == 1) {
+            uncoveredSlots.remove(key);
+        }
+        return true;
+    }
+
+    boolean unassign(String staffID, LocalDate date, ShiftType shift) {
+        long key = RollingRoster.slotKey(date, shift);
+        if (!staffOn(key).contains(staffID)) {
+            return false;
+        }
+        Set<String> staff = writableStaffOn(key);
+        staff.remove(staffID);
+        if (staff.isEmpty() && live.inCoverageWindow(date)) {
+            uncoveredSlots.add(key);
+        }
+        calendar.unassign(staffID, date, shift);
+        return true;
+    }
+
+    int minutesOnDay(String staffID, LocalDate date) {
+        return calendar.minutesOnDay(staffID, date);
+    }
+
+    boolean hasUncoveredShifts() {
+        return !uncoveredSlots.isEmpty();
+    }
+
+    List<String> findUncoveredShifts() {
+        List<String> uncovered = new ArrayList<>(uncoveredSlots.size());
+        for (Long key : uncoveredSlots) {
+            uncovered.add(live.slotName(key));
+        }
+        return uncovered;
+    }
+
+    private Set<String> staffOn(long key) {
+        Set<String> own = staffBySlot.get(key);
+        if (own != null) {
+            return own;
+        }
+        return parent != null ? parent.staffOn(key) : live.staffOn(key);
+    }
+
+    private Set<String> writableStaffOn(long key) {
+        return staffBySlot.computeIfAbsent(key, k -> new HashSet<>(parent != null ? parent.staffOn(k) : live.staffOn(k)));
+    }
+}
@@ -0,0 +1,44 @@
+package healthcare;
+
+import java.time.LocalDate;
+import java.util.*;
+
+//A set of roster changes a manager wants to try out, e.g.
+//new RosterScenario("Move Sam to nights").unassign("N7", monday, "morning").assign("N7", monday, "night")
+//Scenarios are worked out against the live roster as it is at the time. If the real roster
+//changes while one is being worked out it's re-run; if it keeps changing the outcome is
+//marked stale (ScenarioOutcome.isStale) and shouldn't be trusted.
+public class RosterScenario {
+    private final String name;
+    private final List<RosterEntry> changes = new ArrayList<>();
+    // Same positions as changes: true = take the nurse off that shift
+    private final List<Boolean> removals = new ArrayList<>();
+
+    public RosterScenario(String name) {
+        this.name = name;
+    }
+
+    public RosterScenario assign(String nurseID, LocalDate date, String shiftType) {
+        changes.add(new RosterEntry(nurseID, date, shiftType));
+        removals.add(false);
+        return this;
+    }
+
+    public RosterScenario unassign(String nurseID, LocalDate date, String shiftType) {
+        changes.add(new RosterEntry(nurseID, date, shiftType));
+        removals.add(true);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    List<RosterEntry> getChanges() {
+        return changes;
+    }
+
+    boolean isRemoval(int change) {
+        return removals.get(change);
+    }
+}
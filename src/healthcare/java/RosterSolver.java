@@ -0,0 +1,200 @@
+package healthcare;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.*;
+
+//Fills uncovered shifts automatically instead of one assignNurseToShift at a time
+//Days are planned in parallel on all cores. A shift is shorter than a day, so it can only
+//clash with shifts on the day before or after: even days go first, then odd days, which can
+//then see both neighbours' plans. Fairness: each open spot goes to the feasible nurse with
+//the fewest minutes so far, using one shared lock-free load counter per nurse.
+//With time left over, a rebalancing pass moves shifts from the busiest to the least busy nurses.
+class RosterSolver {
+
+    static final class PlannedShift {
+        private final String staffID;
+        private final LocalDate date;
+        private final ShiftType shift;
+
+        PlannedShift(String staffID, LocalDate date, ShiftType shift) {
+            this.staffID = staffID;
+            this.date = date;
+            this.shift = shift;
+        }
+
+        String getStaffID() {
+            return staffID;
+        }
+
+        LocalDate getDate() {
+            return date;
+        }
+
+        ShiftType getShift() {
+            return shift;
+        }
+    }
+
+    private final RollingRoster roster;
+    private final ShiftTemplates templates;
+    private final List<String> staffIDs;
+    private final int staffPerShift;
+    private final int maxHoursPerDay;
+    private final AtomicIntegerArray minutesLoad;
+    // {staff index, shift index} pairs planned per day
+    private final Map<LocalDate, List<int[]>> planByDay = new ConcurrentHashMap<>();
+
+    RosterSolver(RollingRoster roster, Collection<String> staffIDs, int staffPerShift, int maxHoursPerDay) {
+        this.roster = roster;
+        this.templates = roster.getTemplates();
+        this.staffIDs = new ArrayList<>(staffIDs);
+        this.staffPerShift = staffPerShift;
+        this.maxHoursPerDay = maxHoursPerDay;
+        this.minutesLoad = new AtomicIntegerArray(this.staffIDs.size());
+    }
+
+    /**
+     * Plan assignments for every under-staffed slot between the two dates (inclusive)
+     * Days not reached before the time budget runs out are left as they are
+     */
+    List<PlannedShift> fill(LocalDate from, LocalDate toInclusive, Duration timeBudget) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(toInclusive) && !date.isAfter(roster.lastRosterDay());
+             date = date.plusDays(1)) {
+            days.add(date);
+        }
+
+        // Time already on the roster counts towards fairness
+        for (int n = 0; n < staffIDs.size(); n++) {
+            int minutes = 0;
+            for (LocalDate date : days) {
+                minutes += roster.minutesOnDay(staffIDs.get(n), date);
+            }
+            minutesLoad.set(n, minutes);
+        }
+
+        for (int phase = 0; phase < 2; phase++) {
+            int parity = phase;
+            days.parallelStream()
+                    .filter(date -> date.toEpochDay() % 2 == parity && System.nanoTime() < deadline)
+                    .forEach(date -> planByDay.put(date, planDay(date)));
+        }
+
+        rebalance(deadline);
+
+        List<PlannedShift> plan = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<int[]>> day : planByDay.entrySet()) {
+            for (int[] planned : day.getValue()) {
+                plan.add(new PlannedShift(staffIDs.get(planned[0]), day.getKey(), templates.byIndex(planned[1])));
+            }
+        }
+        return plan;
+    }
+
+    private List<int[]> planDay(LocalDate date) {
+        List<int[]> planned = new ArrayList<>();
+        for (ShiftType shift : templates.values()) {
+            RollingRoster.RosterSlot slot = roster.slotFor(date, shift);
+            int missing = staffPerShift - slot.getStaffOnShift().size();
+            for (int spot = 0; spot < missing; spot++) {
+                int best = -1;
+                for (int n = 0; n < staffIDs.size(); n++) {
+                    if ((best == -1 || minutesLoad.get(n) < minutesLoad.get(best))
+                            && canTake(n, date, shift, planned, slot)) {
+                        best = n;
+                    }
+                }
+                if (best == -1) {
+                    break;
+                }
+                planned.add(new int[]{best, shift.getIndex()});
+                minutesLoad.addAndGet(best, shift.getLengthInMinutes());
+            }
+        }
+        return planned;
+    }
+
+    private boolean canTake(int n, LocalDate date, ShiftType shift, List<int[]> plannedToday,
+                            RollingRoster.RosterSlot slot) {
+        String staffID = staffIDs.get(n);
+        if (slot.getStaffOnShift().contains(staffID)) {
+            return false;
+        }
+        int plannedMinutes = 0;
+        for (int[] planned : plannedToday) {
+            if (planned[0] == n) {
+                ShiftType other = templates.byIndex(planned[1]);
+                if (other.overlaps(shift, 0)) {
+                    return false;
+                }
+                plannedMinutes += other.getLengthInMinutes();
+            }
+        }
+        if (clashesWithDay(n, shift, date.minusDays(1), -1) || clashesWithDay(n, shift, date.plusDays(1), 1)) {
+            return false;
+        }
+        return !roster.isOverlapping(staffID, date, shift)
+                && ShiftCalendar.fitsDailyLimit(roster.minutesOnDay(staffID, date) + plannedMinutes, shift, maxHoursPerDay);
+    }
+
+    // Does the shift clash with anything already planned for this nurse on a neighbouring day?
+    private boolean clashesWithDay(int n, ShiftType shift, LocalDate otherDay, int dayOffset) {
+        List<int[]> plannedThatDay = planByDay.get(otherDay);
+        if (plannedThatDay == null) {
+            return false;
+        }
+        for (int[] planned : plannedThatDay) {
+            if (planned[0] == n && shift.overlaps(templates.byIndex(planned[1]), dayOffset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Hand shifts from the busiest nurse to the least busy one who can take them, until time runs out
+    private void rebalance(long deadline) {
+        if (staffIDs.size() < 2) {
+            return;
+        }
+        while (System.nanoTime() < deadline) {
+            int busiest = 0;
+            int idlest = 0;
+            for (int n = 1; n < staffIDs.size(); n++) {
+                if (minutesLoad.get(n) > minutesLoad.get(busiest)) {
+                    busiest = n;
+                }
+                if (minutesLoad.get(n) < minutesLoad.get(idlest)) {
+                    idlest = n;
+                }
+            }
+            if (!moveOneShift(busiest, idlest)) {
+                return;
+            }
+        }
+    }
+
+    private boolean moveOneShift(int from, int to) {
+        for (Map.Entry<LocalDate, List<int[]>> day : planByDay.entrySet()) {
+            for (int[] planned : day.getValue()) {
+                if (planned[0] != from) {
+                    continue;
+                }
+                ShiftType shift = templates.byIndex(planned[1]);
+                // Only worth it if it actually narrows the gap
+                if (minutesLoad.get(from) - minutesLoad.get(to) <= shift.getLengthInMinutes()) {
+                    return false;
+                }
+                if (canTake(to, day.getKey(), shift, day.getValue(), roster.slotFor(day.getKey(), shift))) {
+                    planned[0] = to;
+                    minutesLoad.addAndGet(from, -shift.getLengthInMinutes());
+                    minutesLoad.addAndGet(to, shift.getLengthInMinutes());
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
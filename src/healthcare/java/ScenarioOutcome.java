@@ -0,0 +1,51 @@
+package healthcare;
+
+import java.util.*;
+
+//How a what-if roster scenario came out: which changes didn't fit and what would still be uncovered
+public class ScenarioOutcome {
+    private final String scenarioName;
+    private final int appliedChanges;
+    private final List<String> rejectedChanges;
+    private final List<String> uncoveredShifts;
+    private final boolean stale;
+
+    ScenarioOutcome(String scenarioName, int appliedChanges, List<String> rejectedChanges, List<String> uncoveredShifts,
+                    boolean stale) {
+        this.scenarioName = scenarioName;
+        this.stale = stale;
+        this.appliedChanges = appliedChanges;
+        this.rejectedChanges = Collections.unmodifiableList(rejectedChanges);
+        this.uncoveredShifts = Collections.unmodifiableList(uncoveredShifts);
+    }
+
+    ScenarioOutcome markedStale() {
+        return new ScenarioOutcome(scenarioName, appliedChanges, rejectedChanges, uncoveredShifts, true);
+    }
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public int getAppliedChanges() {
+        return appliedChanges;
+    }
+
+    public List<String> getRejectedChanges() {
+        return rejectedChanges;
+    }
+
+    public List<String> getUncoveredShifts() {
+        return uncoveredShifts;
+    }
+
+    // Every change fit the rules and the coming week would be fully covered
+    public boolean isCompliant() {
+        return !stale && rejectedChanges.isEmpty() && uncoveredShifts.isEmpty();
+    }
+
+    // The real roster kept changing while this was worked out, so the answers may not match each other
+    public boolean isStale() {
+        return stale;
+    }
+}
@@ -0,0 +1,209 @@
+package healthcare;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+//When each staff member is already working, as sorted non-overlapping intervals (in minutes).
+//Overlap check = look at the one interval that starts just before the new shift ends,
+//so it's log(n) however many shifts someone has. Hours are counted against the date the
+//shift starts on (a 22:00-07:00 night counts as 9 hours on the first day).
+//The daily limit can be beaten by one template on its own: a 12-hour day is fine with an
+//8-hour limit, as long as nothing else is booked that day (see fitsDailyLimit).
+//When the roster moves on, everything before the new start is cut off the front of the maps.
+//fork() gives a what-if copy that shares everything with its parent until a staff member
+//is changed in the fork; only that person's intervals are copied then.
+class ShiftCalendar {
+
+    private static final class StaffTimes {
+        // start minute -> end minute, never overlapping
+        private final TreeMap<Long, Long> busy = new TreeMap<>();
+        private final TreeMap<LocalDate, Integer> minutesByDay = new TreeMap<>();
+    }
+
+    private final LocalDate epoch;
+    private volatile LocalDate windowStart;
+    private final ConcurrentHashMap<String, StaffTimes> timesByStaff = new ConcurrentHashMap<>();
+    // Where to read staff this calendar hasn't changed itself (null for the real calendar)
+    private final ShiftCalendar parent;
+
+    ShiftCalendar(LocalDate firstDay) {
+        this.epoch = firstDay;
+        this.windowStart = firstDay;
+        this.parent = null;
+    }
+
+    private ShiftCalendar(ShiftCalendar parent) {
+        this.epoch = parent.epoch;
+        this.windowStart = parent.windowStart;
+        this.parent = parent;
+    }
+
+    /**
+     * A copy-on-write child: O(1) to make, and changes to it never reach this calendar
+     */
+    ShiftCalendar fork() {
+        return new ShiftCalendar(this);
+    }
+
+    /**
+     * Would a shift still be within the daily limit on a day that already has minutesBefore booked?
+     * A template longer than the limit fits only on an otherwise empty day, and nothing fits
+     * on top of it, whichever order they're booked in
+     */
+    static boolean fitsDailyLimit(long minutesBefore, ShiftType shift, int maxHoursPerDay) {
+        long allowed = Math.max((long) maxHoursPerDay * 60, shift.getLengthInMinutes());
+        return minutesBefore + shift.getLengthInMinutes() <= allowed;
+    }
+
+    /**
+     * Book a shift if it doesn't overlap anything and keeps the day within maxHoursPerDay
+     * Check and booking happen together per staff member, so two assignments can't both squeeze in
+     */
+    boolean tryAssign(String staffID, LocalDate date, ShiftType shift, int maxHoursPerDay) {
+        checkInWindow(date);
+        long from = minuteOf(date, shift.getStartMinute());
+        long to = from + shift.getLengthInMinutes();
+        StaffTimes times = writableTimesFor(staffID);
+        synchronized (times) {
+            int minutesThatDay = times.minutesByDay.getOrDefault(date, 0);
+            if (overlaps(times, from, to) || !fitsDailyLimit(minutesThatDay, shift, maxHoursPerDay)) {
+                return false;
+            }
+            times.busy.put(from, to);
+            times.minutesByDay.put(date, minutesThatDay + shift.getLengthInMinutes());
+            return true;
+        }
+    }
+
+    void unassign(String staffID, LocalDate date, ShiftType shift) {
+        checkInWindow(date);
+        if (timesFor(staffID) == null) {
+            return;
+        }
+        StaffTimes times = writableTimesFor(staffID);
+        long from = minuteOf(date, shift.getStartMinute());
+        synchronized (times) {
+            if (times.busy.remove(from, from + shift.getLengthInMinutes())) {
+                times.minutesByDay.computeIfPresent(date, (day, minutes) ->
+                        minutes > shift.getLengthInMinutes() ? minutes - shift.getLengthInMinutes() : null);
+            }
+        }
+    }
+
+    boolean overlaps(String staffID, LocalDate date, ShiftType shift) {
+        StaffTimes times = timesFor(staffID);
+        if (times == null) {
+            return false;
+        }
+        long from = minuteOf(date, shift.getStartMinute());
+        synchronized (times) {
+            return overlaps(times, from, from + shift.getLengthInMinutes());
+        }
+    }
+
+    int minutesOnDay(String staffID, LocalDate date) {
+        StaffTimes times = timesFor(staffID);
+        if (times == null) {
+            return 0;
+        }
+        synchronized (times) {
+            return times.minutesByDay.getOrDefault(date, 0);
+        }
+    }
+
+    /**
+     * The first day from `from` on where someone's booked minutes break the daily limit, or null
+     * (bookings are checked, so only after the limit is lowered or a restore; same rule as fitsDailyLimit)
+     */
+    LocalDate firstDayOverLimit(String staffID, LocalDate from, int maxHoursPerDay) {
+        StaffTimes times = timesFor(staffID);
+        if (times == null) {
+            return null;
+        }
+        synchronized (times) {
+            for (Map.Entry<LocalDate, Integer> day : times.minutesByDay.tailMap(from, true).entrySet()) {
+                if (day.getValue() > Math.max((long) maxHoursPerDay * 60, longestShiftOn(times, day.getKey()))) {
+                    return day.getKey();
+                }
+            }
+            return null;
+        }
+    }
+
+    void forget(String staffID) {
+        if (parent == null) {
+            timesByStaff.remove(staffID);
+        } else {
+            // An empty entry hides the parent's shifts for this person
+            timesByStaff.put(staffID, new StaffTimes());
+        }
+    }
+
+    LocalDate getWindowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Drop every shift that started before newStart
+     */
+    synchronized void dropDaysBefore(LocalDate newStart) {
+        if (!newStart.isAfter(windowStart)) {
+            return;
+        }
+        long cutoff = minuteOf(newStart, 0);
+        for (StaffTimes times : timesByStaff.values()) {
+            synchronized (times) {
+                times.busy.headMap(cutoff).clear();
+                times.minutesByDay.headMap(newStart).clear();
+            }
+        }
+        this.windowStart = newStart;
+    }
+
+    private StaffTimes timesFor(String staffID) {
+        StaffTimes own = timesByStaff.get(staffID);
+        return own != null || parent == null ? own : parent.timesFor(staffID);
+    }
+
+    // First change to someone in a fork copies their intervals from the parent
+    private StaffTimes writableTimesFor(String staffID) {
+        return timesByStaff.computeIfAbsent(staffID, id -> {
+            StaffTimes copy = new StaffTimes();
+            StaffTimes inherited = parent == null ? null : parent.timesFor(id);
+            if (inherited != null) {
+                synchronized (inherited) {
+                    copy.busy.putAll(inherited.busy);
+                    copy.minutesByDay.putAll(inherited.minutesByDay);
+                }
+            }
+            return copy;
+        });
+    }
+
+    // Every booked interval is one whole shift, keyed by its start minute
+    private long longestShiftOn(StaffTimes times, LocalDate date) {
+        long longest = 0;
+        for (Map.Entry<Long, Long> shift : times.busy.subMap(minuteOf(date, 0), minuteOf(date.plusDays(1), 0)).entrySet()) {
+            longest = Math.max(longest, shift.getValue() - shift.getKey());
+        }
+        return longest;
+    }
+
+    // Intervals don't overlap, so the only candidate is the last one starting before `to`
+    private static boolean overlaps(StaffTimes times, long from, long to) {
+        Map.Entry<Long, Long> before = times.busy.lowerEntry(to);
+        return before != null && before.getValue() > from;
+    }
+
+    private void checkInWindow(LocalDate date) {
+        if (date.isBefore(windowStart)) {
+            throw new IllegalArgumentException("Date " + date + " is before the roster window starting " + windowStart);
+        }
+    }
+
+    private long minuteOf(LocalDate date, int minuteOfDay) {
+        return ChronoUnit.DAYS.between(epoch, date) * ShiftType.MINUTES_PER_DAY + minuteOfDay;
+    }
+}
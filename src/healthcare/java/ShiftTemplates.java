@@ -0,0 +1,92 @@
+package healthcare;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+//The shift templates one hospital uses. Morning 8-16 and afternoon 14-22 are always there,
+//others (nights, 12-hour days, ...) are added with define(). Each HospitalSystem has its own
+//set, shared by its nurse roster and its on-call roster, so a template one hospital adds never
+//shows up in another one (or uses up its template numbers).
+class ShiftTemplates {
+    // Index doubles as a small id for packing into roster keys, so keep it well under 256
+    private static final int MAX_TEMPLATES = 64;
+
+    private final CopyOnWriteArrayList<ShiftType> templates = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, ShiftType> byName = new ConcurrentHashMap<>();
+    private volatile int longestMinutes;
+
+    ShiftTemplates() {
+        define("MORNING", HospitalSystem.MORNING_STARTS_AT, HospitalSystem.MORNING_ENDS_AT);
+        define("AFTERNOON", HospitalSystem.AFTERNOON_STARTS_AT, HospitalSystem.AFTERNOON_ENDS_AT);
+    }
+
+    /**
+     * Add a shift template, e.g. define("NIGHT", 22:00, 07:00). Defining the same times again is a no-op
+     */
+    synchronized ShiftType define(String name, LocalTime startsAt, LocalTime endsAt) {
+        String upperName = name.trim().toUpperCase(Locale.ROOT);
+        ShiftType existing = byName.get(upperName);
+        if (existing != null) {
+            if (existing.getStartsAt().equals(startsAt) && existing.getEndsAt().equals(endsAt)) {
+                return existing;
+            }
+            throw new IllegalArgumentException("Shift " + upperName + " already exists with different times");
+        }
+        if (templates.size() >= MAX_TEMPLATES) {
+            throw new IllegalArgumentException("Too many shift templates (max " + MAX_TEMPLATES + ")");
+        }
+        ShiftType shift = new ShiftType(upperName, templates.size(), startsAt, endsAt);
+        templates.add(shift);
+        byName.put(upperName, shift);
+        longestMinutes = Math.max(longestMinutes, shift.getLengthInMinutes());
+        return shift;
+    }
+
+    /**
+     * All templates, in the order they were defined
+     */
+    List<ShiftType> values() {
+        return Collections.unmodifiableList(templates);
+    }
+
+    ShiftType byIndex(int index) {
+        return templates.get(index);
+    }
+
+    Duration longestShift() {
+        return Duration.ofMinutes(longestMinutes);
+    }
+
+    /**
+     * "morning" / "Night" etc. to a ShiftType
+     */
+    ShiftType fromName(String shiftName) {
+        ShiftType shift = byName.get(shiftName.trim().toUpperCase(Locale.ROOT));
+        if (shift == null) {
+            throw new IllegalArgumentException("No shift called " + shiftName);
+        }
+        return shift;
+    }
+
+    /**
+     * The next moment after `now` when any shift starts or ends (who's working can only change then)
+     */
+    LocalDateTime nextBoundaryAfter(LocalDateTime now) {
+        LocalDateTime next = now.plusDays(1);
+        for (ShiftType shift : templates) {
+            for (LocalTime boundary : new LocalTime[]{shift.getStartsAt(), shift.getEndsAt()}) {
+                LocalDateTime candidate = now.toLocalDate().atTime(boundary);
+                if (!candidate.isAfter(now)) {
+                    candidate = candidate.plusDays(1);
+                }
+                if (candidate.isBefore(next)) {
+                    next = candidate;
+                }
+            }
+        }
+        return next;
+    }
+}
@@ -0,0 +1,87 @@
+package healthcare;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+//One shift template: when it starts and how long it runs, in minutes. A shift whose end time
+//is at or before its start runs past midnight into the next day. Templates are made and
+//looked up through ShiftTemplates (one set per hospital).
+//Slot keys like "monday_morning" are still what WorkScheduleManager and Nurse use,
+//so they're made once here instead of being glued together on every assignment
+final class ShiftType {
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final String name;
+    private final int index;
+    private final LocalTime startsAt;
+    private final LocalTime endsAt;
+    private final int startMinute;
+    private final int lengthInMinutes;
+    private final String[] keysByDay = new String[7];
+
+    ShiftType(String name, int index, LocalTime startsAt, LocalTime endsAt) {
+        this.name = name;
+        this.index = index;
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+        this.startMinute = startsAt.getHour() * 60 + startsAt.getMinute();
+        int endMinute = endsAt.getHour() * 60 + endsAt.getMinute();
+        this.lengthInMinutes = Math.floorMod(endMinute - startMinute - 1, MINUTES_PER_DAY) + 1;
+        String suffix = "_" + name.toLowerCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            keysByDay[day.ordinal()] = day.name().toLowerCase(Locale.ROOT) + suffix;
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    LocalTime getStartsAt() {
+        return startsAt;
+    }
+
+    LocalTime getEndsAt() {
+        return endsAt;
+    }
+
+    // Minutes after midnight on the shift's own date
+    int getStartMinute() {
+        return startMinute;
+    }
+
+    int getLengthInMinutes() {
+        return lengthInMinutes;
+    }
+
+    boolean crossesMidnight() {
+        return startMinute + lengthInMinutes > MINUTES_PER_DAY;
+    }
+
+    /**
+     * True if this shift on one date and another one dayOffset days later share any time
+     * (morning/afternoon on the same day do, 14-16; a night can run into the next morning)
+     */
+    boolean overlaps(ShiftType other, int dayOffset) {
+        int otherStart = dayOffset * MINUTES_PER_DAY + other.startMinute;
+        return startMinute < otherStart + other.lengthInMinutes
+                && otherStart < startMinute + lengthInMinutes;
+    }
+
+    /**
+     * The slot key for this shift on a day, e.g. "monday_morning"
+     */
+    String keyFor(DayOfWeek day) {
+        return keysByDay[day.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
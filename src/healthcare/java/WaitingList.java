@@ -0,0 +1,106 @@
+package healthcare;
+
+import healthcare.model.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+//Patients waiting for a bed, kept in one queue per needs mask (care level, isolation, gender, mobility, diet)
+//Inside a queue it's first come first served, so the head is always the longest waiter.
+//When a bed frees up we only look at the queue heads whose needs the bed covers, highest
+//care level first, isolation before non-isolation.
+//A patient is only ever on the list once; the patient ID map is the source of truth, so an
+//entry whose patient was removed (admitted some other way) is just skipped when it's reached.
+class WaitingList {
+
+    static final class WaitingPatient {
+        private final PatientDetails details;
+        private final long needs;
+        private final LocalDateTime waitingSince;
+
+        WaitingPatient(PatientDetails details, long needs) {
+            this.details = details;
+            this.needs = needs;
+            this.waitingSince = LocalDateTime.now();
+        }
+
+        PatientDetails getDetails() {
+            return details;
+        }
+
+        long getNeeds() {
+            return needs;
+        }
+
+        LocalDateTime getWaitingSince() {
+            return waitingSince;
+        }
+    }
+
+    // Key = the BedSuitability needs mask: care level bits on top, then isolation, so
+    // descending key order is the priority order
+    private final ConcurrentSkipListMap<Long, ConcurrentLinkedDeque<WaitingPatient>> queuesByNeed =
+            new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, WaitingPatient> waitingByPatientID = new ConcurrentHashMap<>();
+
+    /**
+     * Add a patient to the back of their queue; false if they're already waiting
+     */
+    boolean add(PatientDetails details, long needs) {
+        WaitingPatient waiting = new WaitingPatient(details, needs);
+        if (waitingByPatientID.putIfAbsent(details.getPatientID(), waiting) != null) {
+            return false;
+        }
+        queueFor(needs).offerLast(waiting);
+        return true;
+    }
+
+    /**
+     * Take a patient off the list (they were admitted some other way); false if they weren't on it
+     */
+    boolean remove(String patientID) {
+        WaitingPatient waiting = waitingByPatientID.remove(patientID);
+        if (waiting == null) {
+            return false;
+        }
+        queueFor(waiting.getNeeds()).remove(waiting);
+        return true;
+    }
+
+    /**
+     * Take the highest priority patient who could use a bed of this kind, or null if nobody can
+     */
+    WaitingPatient takeFor(long bedCapabilities) {
+        for (Map.Entry<Long, ConcurrentLinkedDeque<WaitingPatient>> queue
+                : queuesByNeed.headMap(bedCapabilities, true).descendingMap().entrySet()) {
+            if (!BedSuitability.suits(queue.getKey(), bedCapabilities)) {
+                continue;
+            }
+            WaitingPatient next;
+            while ((next = queue.getValue().pollFirst()) != null) {
+                if (waitingByPatientID.remove(next.getDetails().getPatientID(), next)) {
+                    return next;
+                }
+                // Left over from a patient removed meanwhile - drop it and look at the next one
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put a patient back at the front of their queue (we took them but couldn't get the bed)
+     */
+    void putBack(WaitingPatient waiting) {
+        if (waitingByPatientID.putIfAbsent(waiting.getDetails().getPatientID(), waiting) == null) {
+            queueFor(waiting.getNeeds()).offerFirst(waiting);
+        }
+    }
+
+    int size() {
+        return waitingByPatientID.size();
+    }
+
+    private ConcurrentLinkedDeque<WaitingPatient> queueFor(long needs) {
+        return queuesByNeed.computeIfAbsent(needs, key -> new ConcurrentLinkedDeque<>());
+    }
+}
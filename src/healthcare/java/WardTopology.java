@@ -0,0 +1,205 @@
+package healthcare;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+//Describes what wards, rooms and beds the hospital should be built with
+//Before this the layout was hard-coded to 2 wards of 6 rooms, so we could never
+//try the system at a real hospital size. A topology can now come from:
+//the builder (code), a layout file, or the synthetic generator (load testing)
+//Each ward only keeps an int[] of beds per room - room IDs are made when the ward is built
+//A ward takes every gender, mobility need and diet unless restrictWard says otherwise
+public class WardTopology {
+
+    static final class WardLayout {
+        private final String wardName;
+        private final String wardID;
+        private final int careLevel;
+        private final String roomPrefix;
+        private final int[] bedsPerRoom;
+        // Gender/mobility/diet part of the beds' BedSuitability capabilities
+        private final long facilities;
+
+        WardLayout(String wardName, String wardID, int careLevel, String roomPrefix, int[] bedsPerRoom,
+                   long facilities) {
+            this.wardName = wardName;
+            this.wardID = wardID;
+            this.careLevel = careLevel;
+            this.roomPrefix = roomPrefix;
+            this.bedsPerRoom = bedsPerRoom;
+            this.facilities = facilities;
+        }
+
+        String getWardName() {
+            return wardName;
+        }
+
+        String getWardID() {
+            return wardID;
+        }
+
+        int getCareLevel() {
+            return careLevel;
+        }
+
+        String getRoomPrefix() {
+            return roomPrefix;
+        }
+
+        int getRoomCount() {
+            return bedsPerRoom.length;
+        }
+
+        int getBedsInRoom(int roomIndex) {
+            return bedsPerRoom[roomIndex];
+        }
+
+        long getFacilities() {
+            return facilities;
+        }
+    }
+
+    private final List<WardLayout> wards;
+    private final int totalBeds;
+
+    private WardTopology(List<WardLayout> wards, int totalBeds) {
+        this.wards = Collections.unmodifiableList(wards);
+        this.totalBeds = totalBeds;
+    }
+
+    List<WardLayout> getWards() {
+        return wards;
+    }
+
+    public int getWardCount() {
+        return wards.size();
+    }
+
+    public int getTotalBeds() {
+        return totalBeds;
+    }
+
+    /**
+     * Load a topology from a layout file, one ward per line:
+     * WARD_ID;Ward Name;careLevel;roomPrefix;2,4,1,3
+     * Blank lines and lines starting with # are skipped
+     */
+    public static WardTopology loadFromFile(Path layoutFile) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(layoutFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(";", 5);
+                if (parts.length != 5) {
+                    throw new IOException("Bad ward layout on line " + lineNumber + ": " + line);
+                }
+                try {
+                    builder.addWard(parts[1].trim(), parts[0].trim(), Integer.parseInt(parts[2].trim()),
+                            parts[3].trim(), parseBedCounts(parts[4]));
+                } catch (IllegalArgumentException badNumber) {
+                    throw new IOException("Bad ward layout on line " + lineNumber + ": " + badNumber.getMessage());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Make a big random-but-repeatable topology for load testing and benchmarks
+     */
+    public static WardTopology generateSynthetic(int wardCount, int roomsPerWard, int maxBedsPerRoom, long seed) {
+        Random random = new Random(seed);
+        Builder builder = new Builder();
+        for (int w = 0; w < wardCount; w++) {
+            int[] beds = new int[roomsPerWard];
+            for (int r = 0; r < roomsPerWard; r++) {
+                beds[r] = 1 + random.nextInt(maxBedsPerRoom);
+            }
+            // Roughly one ward in five is intensive care
+            int careLevel = random.nextInt(5) == 0 ? 2 : 1;
+            builder.addWard("Synthetic Ward " + w, "WARD_S" + w, careLevel, "S" + w + "-", beds);
+        }
+        return builder.build();
+    }
+
+    // Parses "2,4,1,3" (spaces allowed around numbers, not inside them) without making a String per number
+    private static int[] parseBedCounts(String text) {
+        int[] counts = new int[8];
+        int size = 0;
+        int current = -1;
+        boolean numberEnded = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                if (numberEnded) {
+                    throw new IllegalArgumentException("missing ',' between bed counts in \"" + text + "\"");
+                }
+                current = (current < 0 ? 0 : current * 10) + (c - '0');
+            } else if (c == ',') {
+                if (current < 0) {
+                    throw new IllegalArgumentException("missing bed count in \"" + text + "\"");
+                }
+                if (size == counts.length) {
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                counts[size++] = current;
+                current = -1;
+                numberEnded = false;
+            } else if (Character.isWhitespace(c)) {
+                numberEnded = current >= 0;
+            } else {
+                throw new IllegalArgumentException("not a bed count: '" + c + "'");
+            }
+        }
+        return Arrays.copyOf(counts, size);
+    }
+
+    public static class Builder {
+        private final List<WardLayout> wards = new ArrayList<>();
+        private final Set<String> wardIDs = new HashSet<>();
+        private int totalBeds;
+
+        public Builder addWard(String wardName, String wardID, int careLevel, String roomPrefix, int... bedsPerRoom) {
+            if (!wardIDs.add(wardID)) {
+                throw new IllegalArgumentException("Duplicate ward ID: " + wardID);
+            }
+            for (int beds : bedsPerRoom) {
+                if (beds < 1) {
+                    throw new IllegalArgumentException("Every room in " + wardID + " needs at least 1 bed");
+                }
+                totalBeds += beds;
+            }
+            wards.add(new WardLayout(wardName, wardID, careLevel, roomPrefix, bedsPerRoom.clone(),
+                    BedSuitability.ALL_FACILITIES));
+            return this;
+        }
+
+        /**
+         * Limit who a ward already added can take: genders (e.g. a women's ward), the highest
+         * mobility need it can look after, and the diets its kitchen serves. null = no limit
+         */
+        public Builder restrictWard(String wardID, Set<? extends Enum<?>> genders, Enum<?> highestMobility,
+                                    Set<? extends Enum<?>> diets) {
+            for (int i = 0; i < wards.size(); i++) {
+                WardLayout ward = wards.get(i);
+                if (ward.wardID.equals(wardID)) {
+                    wards.set(i, new WardLayout(ward.wardName, wardID, ward.careLevel, ward.roomPrefix,
+                            ward.bedsPerRoom, BedSuitability.facilitiesOf(genders, highestMobility, diets)));
+                    return this;
+                }
+            }
+            throw new IllegalArgumentException("No ward " + wardID + " to restrict");
+        }
+
+        public WardTopology build() {
+            return new WardTopology(new ArrayList<>(wards), totalBeds);
+        }
+    }
+}